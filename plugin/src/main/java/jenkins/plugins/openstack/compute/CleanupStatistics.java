@@ -0,0 +1,246 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import jenkins.plugins.openstack.compute.internal.Openstack;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Measurements of the last cleanup cycle of a cloud.
+ *
+ * Phases are recorded in the order they were run, phases skipped as the cycle exceeded its time budget are missing.
+ * Exposed by the remote API of the cloud.
+ */
+@Restricted(NoExternalUse.class)
+@Immutable
+@ExportedBean
+public final class CleanupStatistics {
+
+    public enum Phase {
+        PENDING_DELETION,
+        OUT_OF_SCOPE_SERVERS,
+        NODES_WITHOUT_SERVERS,
+        ORPHANED_FIPS,
+        POOL_PORTS,
+        LEAKED_RESOURCES
+    }
+
+    private final @Nonnull String cloudName;
+    private final long started;
+    private final long duration;
+    private final boolean overBudget;
+    private final @Nonnull Map<Phase, PhaseStatistics> phases;
+
+    private CleanupStatistics(
+            @Nonnull String cloudName,
+            long started,
+            long duration,
+            boolean overBudget,
+            @Nonnull Map<Phase, PhaseStatistics> phases) {
+        this.cloudName = cloudName;
+        this.started = started;
+        this.duration = duration;
+        this.overBudget = overBudget;
+        this.phases = Collections.unmodifiableMap(phases);
+    }
+
+    @Exported
+    public @Nonnull String getCloudName() {
+        return cloudName;
+    }
+
+    /**
+     * @return Start of the cycle in millis since epoch.
+     */
+    @Exported
+    public long getStarted() {
+        return started;
+    }
+
+    /**
+     * @return Duration of the whole cycle in millis.
+     */
+    @Exported
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return true if the cycle did not fit its time budget and yielded before running all the phases.
+     */
+    @Exported
+    public boolean isOverBudget() {
+        return overBudget;
+    }
+
+    @Exported
+    public @Nonnull Map<Phase, PhaseStatistics> getPhases() {
+        return phases;
+    }
+
+    public @CheckForNull PhaseStatistics getPhase(@Nonnull Phase phase) {
+        return phases.get(phase);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Cleanup of ")
+                .append(cloudName)
+                .append(" took ")
+                .append(duration)
+                .append("ms");
+        if (overBudget) {
+            sb.append(" (over budget)");
+        }
+        for (Map.Entry<Phase, PhaseStatistics> e : phases.entrySet()) {
+            sb.append(", ").append(e.getKey()).append(": ").append(e.getValue());
+        }
+        return sb.toString();
+    }
+
+    @Immutable
+    @ExportedBean(defaultVisibility = 2)
+    public static final class PhaseStatistics {
+        private final long duration;
+        private final long apiCalls;
+        private final int examined;
+        private final int acted;
+
+        private PhaseStatistics(long duration, long apiCalls, int examined, int acted) {
+            this.duration = duration;
+            this.apiCalls = apiCalls;
+            this.examined = examined;
+            this.acted = acted;
+        }
+
+        /**
+         * @return Duration of the phase in millis.
+         */
+        @Exported
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * @return Number of OpenStack API requests issued by the phase.
+         */
+        @Exported
+        public long getApiCalls() {
+            return apiCalls;
+        }
+
+        /**
+         * @return Number of nodes or OpenStack resources inspected.
+         */
+        @Exported
+        public int getExamined() {
+            return examined;
+        }
+
+        /**
+         * @return Number of nodes or OpenStack resources deleted or terminated.
+         */
+        @Exported
+        public int getActed() {
+            return acted;
+        }
+
+        @Override
+        public String toString() {
+            return duration + "ms/" + apiCalls + " requests/" + examined + " examined/" + acted + " acted";
+        }
+    }
+
+    /**
+     * Measures phases of a single cycle run by a single thread.
+     */
+    /*package*/ static final class Recorder {
+        private final @Nonnull String cloudName;
+        private final long started = System.currentTimeMillis();
+        private final long deadline;
+        private final @Nonnull Map<Phase, PhaseStatistics> phases = new LinkedHashMap<>();
+
+        private @CheckForNull Phase phase;
+        private long phaseStarted;
+        private long phaseRequests;
+        private int examined;
+        private int acted;
+
+        /*package*/ Recorder(@Nonnull String cloudName, long budget) {
+            this.cloudName = cloudName;
+            this.deadline = started + budget;
+        }
+
+        /*package*/ long getDeadline() {
+            return deadline;
+        }
+
+        /*package*/ boolean isOverBudget() {
+            return System.currentTimeMillis() > deadline;
+        }
+
+        /*package*/ void start(@Nonnull Phase phase) {
+            end();
+            this.phase = phase;
+            phaseStarted = System.currentTimeMillis();
+            phaseRequests = Openstack.getRequestCount();
+            examined = 0;
+            acted = 0;
+        }
+
+        /*package*/ void examined(int count) {
+            examined += count;
+        }
+
+        /*package*/ void acted() {
+            acted++;
+        }
+
+        /*package*/ void end() {
+            if (phase == null) return;
+
+            long duration = System.currentTimeMillis() - phaseStarted;
+            long requests = Openstack.getRequestCount() - phaseRequests;
+            phases.put(phase, new PhaseStatistics(duration, requests, examined, acted));
+            phase = null;
+        }
+
+        /*package*/ @Nonnull
+        CleanupStatistics finish() {
+            end();
+            long now = System.currentTimeMillis();
+            return new CleanupStatistics(
+                    cloudName, started, now - started, now > deadline, new LinkedHashMap<>(phases));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Computer;
+import hudson.model.listeners.ItemListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * OpenStack computers indexed by cloud and template names.
+ *
+ * Computers are added as they are created and removed as Jenkins removes them, see {@link JCloudsComputer#onRemoved()}.
+ * Jenkins computers are rescanned only on first use and once Jenkins (re)loads its configuration, so neither the
+ * lookups nor the node additions and removals traverse all the computers of the controller.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class ComputerRegistry extends ItemListener {
+
+    // Computers by template name by cloud name, mutations guarded by this
+    private final @Nonnull Map<String, Map<String, Set<JCloudsComputer>>> computers = new ConcurrentHashMap<>();
+    private volatile boolean initialized;
+
+    public static @Nonnull ComputerRegistry get() {
+        return ExtensionList.lookup(ItemListener.class).get(ComputerRegistry.class);
+    }
+
+    public @Nonnull List<JCloudsComputer> getAll() {
+        init();
+        List<JCloudsComputer> out = new ArrayList<>();
+        for (Map<String, Set<JCloudsComputer>> byTemplate : computers.values()) {
+            for (Set<JCloudsComputer> cs : byTemplate.values()) {
+                out.addAll(cs);
+            }
+        }
+        return out;
+    }
+
+    public @Nonnull List<JCloudsComputer> getAll(@Nonnull String cloudName) {
+        init();
+        Map<String, Set<JCloudsComputer>> byTemplate = computers.get(cloudName);
+        if (byTemplate == null) return Collections.emptyList();
+
+        List<JCloudsComputer> out = new ArrayList<>();
+        for (Set<JCloudsComputer> cs : byTemplate.values()) {
+            out.addAll(cs);
+        }
+        return out;
+    }
+
+    public @Nonnull List<JCloudsComputer> getAll(@Nonnull String cloudName, @Nonnull String templateName) {
+        init();
+        Map<String, Set<JCloudsComputer>> byTemplate = computers.get(cloudName);
+        if (byTemplate == null) return Collections.emptyList();
+
+        Set<JCloudsComputer> cs = byTemplate.get(templateName);
+        return cs == null ? Collections.emptyList() : new ArrayList<>(cs);
+    }
+
+    /*package*/ synchronized void add(@Nonnull JCloudsComputer computer) {
+        computers
+                .computeIfAbsent(computer.getId().getCloudName(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(getTemplateName(computer), k -> ConcurrentHashMap.newKeySet())
+                .add(computer);
+    }
+
+    /*package*/ synchronized void remove(@Nonnull JCloudsComputer computer) {
+        Map<String, Set<JCloudsComputer>> byTemplate = computers.get(computer.getId().getCloudName());
+        if (byTemplate == null) return;
+
+        Set<JCloudsComputer> cs = byTemplate.get(getTemplateName(computer));
+        if (cs != null) {
+            cs.remove(computer);
+        }
+    }
+
+    /**
+     * Rescan once the configuration is loaded from disk, nodes can be replaced wholesale then.
+     */
+    @Override
+    public void onLoaded() {
+        invalidate();
+    }
+
+    /**
+     * Rescan the computers on next lookup.
+     */
+    /*package*/ void invalidate() {
+        initialized = false;
+    }
+
+    private void init() {
+        if (!initialized) {
+            rescan();
+        }
+    }
+
+    private synchronized void rescan() {
+        Set<JCloudsComputer> current = new HashSet<>();
+        for (Computer c : Jenkins.get().getComputers()) {
+            if (c instanceof JCloudsComputer) {
+                JCloudsComputer computer = (JCloudsComputer) c;
+                current.add(computer);
+                add(computer);
+            }
+        }
+
+        for (Map<String, Set<JCloudsComputer>> byTemplate : computers.values()) {
+            for (Set<JCloudsComputer> cs : byTemplate.values()) {
+                cs.retainAll(current);
+            }
+            byTemplate.values().removeIf(Set::isEmpty);
+        }
+        computers.values().removeIf(Map::isEmpty);
+        initialized = true;
+    }
+
+    private static @Nonnull String getTemplateName(@Nonnull JCloudsComputer computer) {
+        String templateName = computer.getId().getTemplateName();
+        // Not to be confused with any actual template as those are required to have a name
+        return templateName == null ? "" : templateName;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Effective options derived by overriding base options, memoized for as long as neither of them is replaced.
+ *
+ * {@link SlaveOptions} are immutable so the effective options can be reused until the owner reassigns its options
+ * or gets new base options, which is checked by identity.
+ */
+@Immutable
+/*package*/ final class EffectiveOptions {
+    private final @Nonnull SlaveOptions base;
+    private final @Nonnull SlaveOptions override;
+    private final @Nonnull SlaveOptions effective;
+
+    private EffectiveOptions(@Nonnull SlaveOptions base, @Nonnull SlaveOptions override) {
+        this.base = base;
+        this.override = override;
+        this.effective = base.override(override);
+    }
+
+    /**
+     * Get memoized options, or new ones when computed from different options.
+     */
+    /*package*/ static @Nonnull EffectiveOptions of(
+            @CheckForNull EffectiveOptions memo, @Nonnull SlaveOptions base, @Nonnull SlaveOptions override) {
+        if (memo != null && memo.base == base && memo.override == override) return memo;
+        return new EffectiveOptions(base, override);
+    }
+
+    /*package*/ @Nonnull
+    SlaveOptions get() {
+        return effective;
+    }
+}
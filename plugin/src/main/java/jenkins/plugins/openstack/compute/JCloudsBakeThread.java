@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import hudson.Extension;
+import hudson.Functions;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.TaskListener;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.plugins.openstack.compute.internal.OpenstackExecutor;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Periodically bake images for templates that request it.
+ *
+ * Bakes are serialized so only one bake server per Jenkins instance is running at a time. They are chained on the
+ * {@link OpenstackExecutor} as they take as long as the servers take to boot, a run still in progress is not started
+ * again.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class JCloudsBakeThread extends AsyncPeriodicWork {
+    private static final Logger LOGGER = Logger.getLogger(JCloudsBakeThread.class.getName());
+
+    // Bakes started by the last run
+    private volatile @CheckForNull Future<?> bakes;
+
+    public JCloudsBakeThread() {
+        super("OpenStack image bake");
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return Functions.getIsUnitTest() ? Long.MAX_VALUE : MIN * 10;
+    }
+
+    @Override
+    public void execute(TaskListener listener) {
+        Future<?> running = bakes;
+        if (running != null && !running.isDone()) {
+            LOGGER.fine("Bakes of the last run still in progress");
+            return;
+        }
+
+        bakes = bakeAll();
+    }
+
+    // Bake the templates one after another
+    private static @Nonnull CompletableFuture<Void> bakeAll() {
+        CompletableFuture<Void> bakes = CompletableFuture.completedFuture(null);
+        for (JCloudsCloud cloud : JCloudsCloud.getClouds()) {
+            for (JCloudsSlaveTemplate template : cloud.getTemplates()) {
+                if (template.getEffectiveSlaveOptions().getBakeInterval() <= 0) continue;
+
+                bakes = bakes.thenComposeAsync(v -> bake(cloud, template), OpenstackExecutor.get());
+            }
+        }
+        return bakes;
+    }
+
+    private static @Nonnull CompletableFuture<Void> bake(
+            @Nonnull JCloudsCloud cloud, @Nonnull JCloudsSlaveTemplate template) {
+        CompletableFuture<Void> bake;
+        try {
+            template.refreshBakedImages();
+            bake = template.isBakeDue() ? template.bake() : CompletableFuture.completedFuture(null);
+        } catch (Throwable ex) {
+            bake = new CompletableFuture<>();
+            bake.completeExceptionally(ex);
+        }
+        return bake.exceptionally(ex -> {
+            LOGGER.log(
+                    Level.WARNING,
+                    "Failed to bake image for template " + template.getName() + " in cloud " + cloud.name,
+                    ex);
+            return null;
+        });
+    }
+}
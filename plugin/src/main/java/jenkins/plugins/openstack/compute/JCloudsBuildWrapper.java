@@ -13,7 +13,6 @@ import hudson.Util;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.model.BuildListener;
-import hudson.model.Computer;
 import hudson.tasks.BuildWrapper;
 import hudson.tasks.BuildWrapperDescriptor;
 import java.io.IOException;
@@ -27,6 +26,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import jenkins.plugins.openstack.compute.internal.DestroyMachine;
 import jenkins.plugins.openstack.compute.internal.Openstack;
+import jenkins.plugins.openstack.compute.internal.OpenstackExecutor;
 import org.jenkinsci.plugins.resourcedisposer.AsyncResourceDisposer;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
@@ -66,7 +66,7 @@ public class JCloudsBuildWrapper extends BuildWrapper {
                 })
                 .collect(Collectors.toList());
 
-        ListeningExecutorService executor = MoreExecutors.listeningDecorator(Computer.threadPoolForRemoting);
+        ListeningExecutorService executor = MoreExecutors.listeningDecorator(OpenstackExecutor.get());
         final ImmutableList.Builder<RunningNode> cloudTemplateNodeBuilder = ImmutableList.builder();
 
         final ImmutableList.Builder<ListenableFuture<Server>> plannedInstancesBuilder = ImmutableList.builder();
@@ -115,7 +115,7 @@ public class JCloudsBuildWrapper extends BuildWrapper {
         final ImmutableList<RunningNode> runningNode = cloudTemplateNodeBuilder.build();
 
         if (failedLaunches.get() > 0) {
-            terminateNodes(runningNode);
+            terminateNodes(scope, runningNode);
             throw new IllegalStateException("One or more instances failed to launch.");
         }
 
@@ -135,7 +135,7 @@ public class JCloudsBuildWrapper extends BuildWrapper {
             @Override
             public boolean tearDown(AbstractBuild build, final BuildListener listener)
                     throws IOException, InterruptedException {
-                terminateNodes(runningNode);
+                terminateNodes(scope, runningNode);
                 return true;
             }
         };
@@ -157,9 +157,11 @@ public class JCloudsBuildWrapper extends BuildWrapper {
         return String.join(",", ips);
     }
 
-    private static void terminateNodes(Iterable<RunningNode> runningNodes) {
+    private static void terminateNodes(ServerScope.Build scope, Iterable<RunningNode> runningNodes) {
         AsyncResourceDisposer disposer = AsyncResourceDisposer.get();
+        RunScopeRegistry registry = RunScopeRegistry.get();
         for (RunningNode rn : runningNodes) {
+            registry.unregister(scope, rn.getNode().getId());
             disposer.dispose(new DestroyMachine(rn.getCloudName(), rn.getNode().getId()));
         }
     }
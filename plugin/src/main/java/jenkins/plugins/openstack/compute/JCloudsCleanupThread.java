@@ -1,5 +1,6 @@
 package jenkins.plugins.openstack.compute;
 
+import com.google.common.annotations.VisibleForTesting;
 import hudson.Extension;
 import hudson.model.AsyncPeriodicWork;
 import hudson.model.Executor;
@@ -7,16 +8,27 @@ import hudson.model.Result;
 import hudson.model.TaskListener;
 import hudson.slaves.OfflineCause;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import jenkins.model.CauseOfInterruption;
 import jenkins.plugins.openstack.compute.internal.DestroyMachine;
 import jenkins.plugins.openstack.compute.internal.Openstack;
+import jenkins.plugins.openstack.compute.internal.OpenstackExecutor;
+import jenkins.util.Timer;
 import org.jenkinsci.plugins.resourcedisposer.AsyncResourceDisposer;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
@@ -30,86 +42,245 @@ import org.openstack4j.model.compute.Server;
  * - Node pending deletion get terminated with their servers.
  * - Servers that are running longer than declared are terminated.
  * - Nodes with server missing are terminated.
+ *
+ * Every cloud is reconciled independently at its own cleanup frequency so a slow or unreachable cloud does not delay
+ * the others. This periodic work only keeps the per-cloud reconcilers scheduled.
+ *
+ * Cycle exceeding the time budget of its cloud skips the remaining phases, the next cycle starts with the first phase
+ * skipped so every phase gets its turn even when the earlier ones keep using up the budget. Duration,
+ * number of OpenStack requests and number of items handled by every phase of the last cycle are kept as
+ * {@link CleanupStatistics}.
  */
 @Extension
 @Restricted(NoExternalUse.class)
 public final class JCloudsCleanupThread extends AsyncPeriodicWork {
     private static final Logger LOGGER = Logger.getLogger(JCloudsCleanupThread.class.getName());
 
+    // Leaked volumes and ports are looked for less often as it requires listing all of them
+    private static final long LEAK_SWEEP_PERIOD = TimeUnit.MINUTES.toMillis(10);
+    // Leaked resources deleted by single sweep, the rest is left for the following ones
+    /*package*/ static final int MAX_LEAK_DELETIONS = 20;
+    // Phases of a cleanup cycle, in order
+    private static final List<CleanupStatistics.Phase> CYCLE = Collections.unmodifiableList(Arrays.asList(
+            CleanupStatistics.Phase.PENDING_DELETION,
+            CleanupStatistics.Phase.OUT_OF_SCOPE_SERVERS,
+            CleanupStatistics.Phase.NODES_WITHOUT_SERVERS,
+            CleanupStatistics.Phase.ORPHANED_FIPS,
+            CleanupStatistics.Phase.POOL_PORTS));
+
+    // Reconcilers by cloud name
+    private final @Nonnull Map<String, Reconciler> reconcilers = new ConcurrentHashMap<>();
+
     public JCloudsCleanupThread() {
         super("OpenStack slave cleanup");
     }
 
     @Override
     public long getRecurrencePeriod() {
-        // fixed value: 1000 millis
-        long cleanFreq = 1000;
-
-        return cleanFreq;
+        // Minimal cleanup frequency permitted, so new clouds and config changes are picked up in time
+        return TimeUnit.SECONDS.toMillis(10);
     }
 
     @Override
     public void execute(TaskListener listener) {
+        Map<String, JCloudsCloud> clouds = new HashMap<>();
+        for (JCloudsCloud cloud : JCloudsCloud.getClouds()) {
+            clouds.put(cloud.name, cloud);
+        }
 
-        try {
-            terminateNodesPendingDeletion();
+        // Stop reconciling clouds that are gone. The reconciler is kept so a cloud configured again under the same
+        // name does not get a second one running its cycle alongside the one still in progress
+        for (Map.Entry<String, Reconciler> e : reconcilers.entrySet()) {
+            if (!clouds.containsKey(e.getKey())) {
+                e.getValue().schedule(-1);
+            }
+        }
 
-            @Nonnull HashMap<JCloudsCloud, List<Server>> runningServers = destroyServersOutOfScope();
+        for (JCloudsCloud cloud : clouds.values()) {
+            long period = Math.max(1000, cloud.getCleanfreqToMillis());
+            reconcilers.computeIfAbsent(cloud.name, Reconciler::new).schedule(period);
+        }
+    }
 
-            terminatesNodesWithoutServers(runningServers);
+    /**
+     * Reconcile all clouds whose cleanup is due, waiting for the reconciliations in progress.
+     */
+    @VisibleForTesting
+    public void reconcileDue() {
+        for (JCloudsCloud cloud : JCloudsCloud.getClouds()) {
+            reconcilers.computeIfAbsent(cloud.name, Reconciler::new).reconcileIfDue(true);
+        }
+    }
+
+    /**
+     * Statistics of the last cleanup cycle of a cloud.
+     */
+    public @CheckForNull CleanupStatistics getStatistics(@Nonnull String cloudName) {
+        Reconciler reconciler = reconcilers.get(cloudName);
+        return reconciler == null ? null : reconciler.statistics;
+    }
+
+    /**
+     * Single cleanup cycle of a cloud.
+     *
+     * Jenkins nodes are indexed and servers are listed once so the work is linear in number of nodes and servers.
+     *
+     * @param resume Phase to start with, the rest of them follow in the order of {@link #CYCLE}.
+     * @return Phase skipped as the budget was exceeded, null if all of them were run.
+     */
+    private @CheckForNull CleanupStatistics.Phase reconcile(
+            @Nonnull JCloudsCloud cloud,
+            @Nonnull CleanupStatistics.Recorder recorder,
+            @Nonnull CleanupStatistics.Phase resume) {
+        List<JCloudsComputer> computers = JCloudsComputer.getAll(cloud.name);
+        List<Server> runningServers = null;
+
+        int start = CYCLE.indexOf(resume);
+        for (int i = 0; i < CYCLE.size(); i++) {
+            CleanupStatistics.Phase phase = CYCLE.get((start + i) % CYCLE.size());
+            if (i > 0 && recorder.isOverBudget()) return phase;
+
+            recorder.start(phase);
+            switch (phase) {
+                case PENDING_DELETION:
+                    computers = terminateNodesPendingDeletion(computers, recorder);
+                    break;
+                case OUT_OF_SCOPE_SERVERS:
+                    runningServers = destroyServersOutOfScope(cloud, recorder);
+                    break;
+                case NODES_WITHOUT_SERVERS:
+                    if (runningServers == null) { // Resumed past the phase listing the servers
+                        runningServers = listServers(cloud);
+                    }
+                    terminatesNodesWithoutServers(cloud, computers, runningServers, recorder);
+                    break;
+                case ORPHANED_FIPS:
+                    cleanOrphanedFips(cloud, recorder);
+                    break;
+                case POOL_PORTS:
+                    reclaimPoolPorts(cloud, recorder);
+                    break;
+                default:
+                    throw new AssertionError("Unknown phase " + phase);
+            }
+        }
+        recorder.end();
+        return null;
+    }
 
-            cleanOrphanedFips();
+    private void cleanOrphanedFips(@Nonnull JCloudsCloud cloud, @Nonnull CleanupStatistics.Recorder recorder) {
+        Openstack openstack = cloud.getOpenstack();
 
-            setCloudLastCleanTime();
+        List<String> leaked = openstack.getFreeFipIds();
+        recorder.examined(leaked.size());
+        if (leaked.isEmpty()) return;
 
-        } catch (JCloudsCloud.LoginFailure ex) {
-            LOGGER.log(Level.WARNING, "Unable to authenticate: " + ex.getMessage());
-        } catch (Throwable ex) {
-            LOGGER.log(Level.SEVERE, "Unable to perform the cleanup", ex);
+        LOGGER.info("Cleaning up floating IPs leaked from cloud " + cloud.name + ": " + leaked);
+
+        for (String fip : leaked) {
+            if (recorder.isOverBudget()) return; // Leave the rest to the next cycle
+            try {
+                openstack.destroyFip(fip);
+                recorder.acted();
+            } catch (Exception ex) {
+                LOGGER.log(
+                        Level.WARNING, "Unable to release floating IP " + fip + " leaked from cloud " + cloud.name, ex);
+            }
         }
     }
 
-    private void cleanOrphanedFips() {
-        for (JCloudsCloud cloud : JCloudsCloud.getClouds()) {
-            if ((System.currentTimeMillis() - cloud.getLastCleanTime()) < cloud.getCleanfreqToMillis()) continue;
-            Openstack openstack = cloud.getOpenstack();
+    /**
+     * Delete volumes and ports left behind by destroyed servers.
+     *
+     * Resources are deleted only when found by two consecutive sweeps not to race with Nova deleting them.
+     *
+     * @param suspected Resources found by the previous sweep.
+     * @return Resources found and not deleted, to be reconsidered by the next sweep.
+     */
+    /*package for testing*/ @Nonnull
+    Set<String> cleanLeakedResources(
+            @Nonnull JCloudsCloud cloud, @Nonnull Set<String> suspected, @Nonnull CleanupStatistics.Recorder recorder) {
+        Openstack openstack = cloud.getOpenstack();
+        Set<String> found = new HashSet<>();
+        int deleted = 0;
+
+        for (String volumeId : openstack.getLeakedVolumeIds()) {
+            recorder.examined(1);
+            String key = "volume:" + volumeId;
+            if (!suspected.contains(key) || deleted >= MAX_LEAK_DELETIONS) {
+                found.add(key);
+                continue;
+            }
 
-            List<String> leaked = openstack.getFreeFipIds();
-            if (leaked.isEmpty()) return;
+            LOGGER.info("Deleting volume " + volumeId + " leaked from cloud " + cloud.name);
+            try {
+                openstack.destroyVolume(volumeId);
+                deleted++;
+                recorder.acted();
+            } catch (Exception ex) {
+                LOGGER.log(
+                        Level.WARNING, "Unable to delete volume " + volumeId + " leaked from cloud " + cloud.name, ex);
+            }
+        }
 
-            LOGGER.info("Cleaning up floating IPs leaked from cloud " + cloud.name + ": " + leaked);
+        for (String portId : openstack.getLeakedPortIds()) {
+            recorder.examined(1);
+            String key = "port:" + portId;
+            if (!suspected.contains(key) || deleted >= MAX_LEAK_DELETIONS) {
+                found.add(key);
+                continue;
+            }
 
-            for (String fip : leaked) {
-                try {
-                    openstack.destroyFip(fip);
-                } catch (Exception ex) {
-                    LOGGER.log(
-                            Level.WARNING,
-                            "Unable to release floating IP " + fip + " leaked from cloud " + cloud.name,
-                            ex);
-                }
+            LOGGER.info("Deleting port " + portId + " leaked from cloud " + cloud.name);
+            try {
+                openstack.destroyPort(portId);
+                deleted++;
+                recorder.acted();
+            } catch (Exception ex) {
+                LOGGER.log(Level.WARNING, "Unable to delete port " + portId + " leaked from cloud " + cloud.name, ex);
             }
         }
+
+        return found;
     }
 
-    private void setCloudLastCleanTime() {
-        for (JCloudsCloud cloud : JCloudsCloud.getClouds()) {
-            if ((System.currentTimeMillis() - cloud.getLastCleanTime()) < cloud.getCleanfreqToMillis()) continue;
-            cloud.setLastCleanTime(System.currentTimeMillis());
+    private void reclaimPoolPorts(@Nonnull JCloudsCloud cloud, @Nonnull CleanupStatistics.Recorder recorder) {
+        Map<String, Integer> sizes = new HashMap<>();
+        for (JCloudsSlaveTemplate template : cloud.getTemplates()) {
+            int portPoolSize = template.getEffectiveSlaveOptions().getPortPoolSize();
+            if (portPoolSize > 0) {
+                sizes.put(PortPool.getOwner(cloud.name, template.getName()), portPoolSize);
+            }
+        }
+        // Do not list all the ports when there are no pools configured
+        if (sizes.isEmpty()) return;
+
+        try {
+            PortPool.reclaim(cloud.getOpenstack(), cloud.name, sizes, recorder);
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, "Unable to reclaim pool ports of cloud " + cloud.name, ex);
         }
     }
 
-    private void terminateNodesPendingDeletion() {
-        for (final JCloudsComputer comp : JCloudsComputer.getAll()) {
-            JCloudsCloud cloud = JCloudsCloud.getByName(comp.getId().getCloudName());
-            if ((System.currentTimeMillis() - cloud.getLastCleanTime()) < cloud.getCleanfreqToMillis()) continue;
-            if (!comp.isIdle()) continue;
+    /**
+     * @return Computers not deleted.
+     */
+    private @Nonnull List<JCloudsComputer> terminateNodesPendingDeletion(
+            @Nonnull List<JCloudsComputer> computers, @Nonnull CleanupStatistics.Recorder recorder) {
+        List<JCloudsComputer> remaining = new ArrayList<>(computers.size());
+        recorder.examined(computers.size());
+        for (final JCloudsComputer comp : computers) {
+            if (!comp.isIdle()) {
+                remaining.add(comp);
+                continue;
+            }
 
             final OfflineCause offlineCause = comp.getNode().getFatalOfflineCause();
             if (comp.isPendingDelete()) {
                 LOGGER.log(
                         Level.INFO, "Deleting pending node " + comp.getName() + ". Reason: " + comp.getOfflineCause());
                 deleteComputer(comp);
+                recorder.acted();
             } else if (offlineCause != null) {
                 LOGGER.log(
                         Level.WARNING,
@@ -117,8 +288,12 @@ public final class JCloudsCleanupThread extends AsyncPeriodicWork {
                                 + comp.getOfflineCause());
 
                 deleteComputer(comp);
+                recorder.acted();
+            } else {
+                remaining.add(comp);
             }
         }
+        return remaining;
     }
 
     private String getTerminalDiagnosis(JCloudsComputer comp) {
@@ -168,36 +343,52 @@ public final class JCloudsCleanupThread extends AsyncPeriodicWork {
         }
     }
 
+    private @Nonnull List<Server> listServers(@Nonnull JCloudsCloud cloud) {
+        long listedAt = System.currentTimeMillis();
+        List<Server> listed = cloud.getOpenstack().getRunningNodes();
+        ServerInventory.get(cloud.name).update(listed, listedAt);
+        return listed;
+    }
+
     /**
      * @return Servers not destroyed as they are in scope.
      */
-    private @Nonnull HashMap<JCloudsCloud, List<Server>> destroyServersOutOfScope() {
-        HashMap<JCloudsCloud, List<Server>> runningServers = new HashMap<>();
-        for (JCloudsCloud jc : JCloudsCloud.getClouds()) {
-            if ((System.currentTimeMillis() - jc.getLastCleanTime()) < jc.getCleanfreqToMillis()) continue;
-            runningServers.put(jc, new ArrayList<>());
-            List<Server> servers = jc.getOpenstack().getRunningNodes();
-            for (Server server : servers) {
-                ServerScope scope = ServerScope.extract(server);
-                if (scope.isOutOfScope(server)) {
-                    LOGGER.info("Server " + server.getName() + " run out of its scope " + scope + ". Terminating: "
-                            + server);
-                    AsyncResourceDisposer.get().dispose(new DestroyMachine(jc.name, server.getId()));
-                } else {
-                    runningServers.get(jc).add(server);
-                }
+    private @Nonnull List<Server> destroyServersOutOfScope(
+            @Nonnull JCloudsCloud cloud, @Nonnull CleanupStatistics.Recorder recorder) {
+        List<Server> runningServers = new ArrayList<>();
+        ServerScope.Context context = null;
+        for (Server server : listServers(cloud)) {
+            recorder.examined(1);
+            ServerScope scope = ServerScope.extract(server);
+            if (scope instanceof ServerScope.Unlimited) {
+                runningServers.add(server);
+                continue;
+            }
+
+            if (context == null) { // Indexed once for all the servers
+                context = ServerScope.Context.create();
+            }
+            if (scope.isOutOfScope(server, context)) {
+                LOGGER.info(
+                        "Server " + server.getName() + " run out of its scope " + scope + ". Terminating: " + server);
+                AsyncResourceDisposer.get().dispose(new DestroyMachine(cloud.name, server.getId()));
+                recorder.acted();
+            } else {
+                runningServers.add(server);
             }
         }
 
         return runningServers;
     }
 
-    private void terminatesNodesWithoutServers(@Nonnull HashMap<JCloudsCloud, List<Server>> runningServers) {
+    private void terminatesNodesWithoutServers(
+            @Nonnull JCloudsCloud cloud,
+            @Nonnull List<JCloudsComputer> computers,
+            @Nonnull List<Server> runningServers,
+            @Nonnull CleanupStatistics.Recorder recorder) {
         Map<String, JCloudsComputer> jenkinsComputers = new HashMap<>();
-        for (JCloudsComputer computer : JCloudsComputer.getAll()) {
-            JCloudsCloud cloud = JCloudsCloud.getByName(computer.getId().getCloudName());
-            if ((System.currentTimeMillis() - cloud.getLastCleanTime()) < cloud.getCleanfreqToMillis()) continue;
-
+        recorder.examined(computers.size());
+        for (JCloudsComputer computer : computers) {
             JCloudsSlave node = computer.getNode();
             if (node != null) {
                 jenkinsComputers.put(node.getServerId(), computer);
@@ -205,42 +396,76 @@ public final class JCloudsCleanupThread extends AsyncPeriodicWork {
         }
 
         // Eliminate computers we have servers for
-        for (Map.Entry<JCloudsCloud, List<Server>> e : runningServers.entrySet()) {
-            for (Server server : e.getValue()) {
-                jenkinsComputers.remove(server.getId());
-            }
+        for (Server server : runningServers) {
+            jenkinsComputers.remove(server.getId());
         }
 
+        if (jenkinsComputers.isEmpty()) return;
+
+        Set<String> gone = confirmServersGone(cloud, jenkinsComputers.keySet(), recorder.getDeadline());
         for (Map.Entry<String, JCloudsComputer> entry : jenkinsComputers.entrySet()) {
-            JCloudsComputer computer = entry.getValue();
             String id = entry.getKey();
-            String cloudName = computer.getId().getCloudName();
-            JCloudsCloud cloud;
-            try {
-                cloud = JCloudsCloud.getByName(cloudName);
-            } catch (IllegalArgumentException e) {
-                LOGGER.warning("The cloud " + cloudName + " does not longer exists for " + computer.getName());
-                // TODO: we ware unable to perform the double lookup - keeping the node alive. Once we are confident
-                // enough in this, we can do the cleanup anyway
-                continue;
-            }
-
-            try { // Double check server does not exist before interrupting jobs
-                Server explicitLookup = cloud.getOpenstack().getServerById(id);
-                if (Openstack.isOccupied(explicitLookup)) {
-                    LOGGER.severe(getClass().getSimpleName() + " incorrectly detected orphaned computer for "
-                            + explicitLookup);
-                    continue; // Do not kill it
-                }
-            } catch (NoSuchElementException expected) {
-                // Gone as expected
-            }
+            if (!gone.contains(id)) continue; // Do not kill it
 
+            JCloudsComputer computer = entry.getValue();
             String msg = "OpenStack server (" + id + ") is not running for computer " + computer.getName()
                     + ". Terminating!";
             LOGGER.warning(msg);
             deleteComputer(computer, new MessageInterruption(msg));
+            recorder.acted();
+        }
+    }
+
+    /**
+     * Double check servers do not exist before interrupting jobs.
+     *
+     * The listing that made the candidates look missing might have been incomplete, so the servers are listed once
+     * more. Those still missing are looked up by their ID one by one, until the cycle exceeds its time budget, so an
+     * API outage making many servers look missing does not hold the cycle for too long.
+     *
+     * @return IDs of servers confirmed gone. Those not checked before the deadline are deferred to the next cycle.
+     */
+    private @Nonnull Set<String> confirmServersGone(
+            @Nonnull JCloudsCloud cloud, @Nonnull Set<String> candidates, long deadline) {
+        Set<String> missing = new HashSet<>(candidates);
+        for (Server server : listServers(cloud)) {
+            missing.remove(server.getId());
+        }
+
+        Openstack openstack = cloud.getOpenstack();
+        Set<String> gone = new HashSet<>();
+        int checked = 0;
+        for (String id : missing) {
+            if (System.currentTimeMillis() > deadline) {
+                LOGGER.warning("Cleanup of " + cloud.name + " exceeded its time budget, deferring check of "
+                        + (missing.size() - checked) + " servers");
+                break;
+            }
+
+            checked++;
+            try {
+                if (isGone(openstack, id)) {
+                    gone.add(id);
+                }
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Unable to check server " + id, ex);
+            }
         }
+        return gone;
+    }
+
+    private boolean isGone(@Nonnull Openstack openstack, @Nonnull String id) {
+        try {
+            Server explicitLookup = openstack.getServerById(id);
+            if (Openstack.isOccupied(explicitLookup)) {
+                LOGGER.severe(getClass().getSimpleName() + " incorrectly detected orphaned computer for "
+                        + explicitLookup);
+                return false;
+            }
+        } catch (NoSuchElementException expected) {
+            // Gone as expected
+        }
+        return true;
     }
 
     @Override
@@ -253,6 +478,107 @@ public final class JCloudsCleanupThread extends AsyncPeriodicWork {
         return Level.INFO;
     }
 
+    /**
+     * Periodic reconciliation of a single cloud.
+     */
+    private final class Reconciler implements Runnable {
+        private final @Nonnull String cloudName;
+        private final @Nonnull ReentrantLock lock = new ReentrantLock();
+        // Written holding this
+        private volatile long period = -1;
+        private @CheckForNull ScheduledFuture<?> schedule;
+        // Guarded by lock
+        private long lastLeakSweep;
+        private @Nonnull Set<String> suspectedLeaks = Collections.emptySet();
+        private @Nonnull CleanupStatistics.Phase resume = CYCLE.get(0);
+        private volatile @CheckForNull CleanupStatistics statistics;
+
+        private Reconciler(@Nonnull String cloudName) {
+            this.cloudName = cloudName;
+        }
+
+        /**
+         * (Re)schedule the reconciliation, non-positive period stops it. The cycle in progress is not interrupted.
+         */
+        private synchronized void schedule(long period) {
+            if (this.period == period) return;
+
+            if (schedule != null) {
+                schedule.cancel(false);
+            }
+            this.period = period;
+            // Scheduling only, the cycle itself is not to occupy the shared timer
+            schedule = period <= 0
+                    ? null
+                    : Timer.get()
+                            .scheduleWithFixedDelay(
+                                    () -> OpenstackExecutor.get().submit(this),
+                                    period,
+                                    period,
+                                    TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            reconcileIfDue(false);
+        }
+
+        private void reconcileIfDue(boolean wait) {
+            if (wait) {
+                lock.lock();
+            } else if (!lock.tryLock()) {
+                return; // Previous cycle still running
+            }
+
+            try {
+                JCloudsCloud cloud;
+                try {
+                    cloud = JCloudsCloud.getByName(cloudName);
+                } catch (IllegalArgumentException ex) {
+                    return; // Removed, reconciler will be unscheduled
+                }
+
+                // Measured from the start of the previous cycle. Scheduled runs come one period apart, tolerate them
+                // coming a bit early not to skip every other one
+                long started = System.currentTimeMillis();
+                long period = this.period;
+                long due = cloud.getCleanfreqToMillis() - (period > 0 ? period / 2 : 0);
+                if (started - cloud.getLastCleanTime() < due) return;
+
+                CleanupStatistics.Recorder recorder =
+                        new CleanupStatistics.Recorder(cloudName, cloud.getCleanupBudgetToMillis());
+                try {
+                    CleanupStatistics.Phase skipped = reconcile(cloud, recorder, resume);
+                    resume = skipped == null ? CYCLE.get(0) : skipped;
+
+                    boolean completed = skipped == null && !recorder.isOverBudget();
+                    if (completed && System.currentTimeMillis() - lastLeakSweep >= LEAK_SWEEP_PERIOD) {
+                        lastLeakSweep = System.currentTimeMillis();
+                        recorder.start(CleanupStatistics.Phase.LEAKED_RESOURCES);
+                        suspectedLeaks = cleanLeakedResources(cloud, suspectedLeaks, recorder);
+                    }
+                } catch (JCloudsCloud.LoginFailure ex) {
+                    LOGGER.log(Level.WARNING, "Unable to authenticate: " + ex.getMessage());
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.SEVERE, "Unable to perform the cleanup of " + cloudName, ex);
+                } finally {
+                    // Do not retry failing cloud sooner than declared
+                    cloud.setLastCleanTime(started);
+
+                    CleanupStatistics stats = recorder.finish();
+                    statistics = stats;
+                    if (stats.isOverBudget()) {
+                        LOGGER.warning(stats + ". Yielding the rest to the next cycle");
+                    } else {
+                        LOGGER.fine(stats.toString());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
     private static class MessageInterruption extends CauseOfInterruption {
         private static final long serialVersionUID = 7125610351278586647L;
 
@@ -8,8 +8,10 @@ import com.cloudbees.plugins.credentials.common.StandardCredentials;
 import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
 import com.cloudbees.plugins.credentials.domains.DomainRequirement;
 import hudson.Extension;
+import hudson.ExtensionList;
 import hudson.Util;
-import hudson.model.Computer;
+import hudson.model.Api;
+import hudson.model.AsyncPeriodicWork;
 import hudson.model.Descriptor;
 import hudson.model.Failure;
 import hudson.model.Item;
@@ -33,15 +35,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.servlet.http.HttpServletResponse;
@@ -51,8 +52,8 @@ import jenkins.plugins.openstack.compute.auth.OpenstackCredentials;
 import jenkins.plugins.openstack.compute.auth.OpenstackCredentialv2;
 import jenkins.plugins.openstack.compute.auth.OpenstackCredentialv3;
 import jenkins.plugins.openstack.compute.internal.Openstack;
+import jenkins.plugins.openstack.compute.internal.OpenstackExecutor;
 import jenkins.plugins.openstack.compute.slaveopts.LauncherFactory;
-import jenkins.util.Timer;
 import org.jenkinsci.Symbol;
 import org.jenkinsci.plugins.cloudstats.CloudStatistics;
 import org.jenkinsci.plugins.cloudstats.ProvisioningActivity;
@@ -65,6 +66,8 @@ import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
 import org.kohsuke.stapler.interceptor.RequirePOST;
 import org.openstack4j.api.exceptions.AuthenticationException;
 import org.openstack4j.model.compute.Server;
@@ -75,6 +78,7 @@ import org.springframework.security.core.Authentication;
  *
  * @author Vijay Kiran
  */
+@ExportedBean
 public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
 
     private static final Logger LOGGER = Logger.getLogger(JCloudsCloud.class.getName());
@@ -88,11 +92,16 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
     // Clean frequency in seconds. Default 10s
     private @Nonnull long cleanfreq = 10;
 
+    // Time budget of a single cleanup cycle in seconds, 0 means the cleanup frequency
+    private long cleanupBudget;
+
     private long lastCleanTime = System.currentTimeMillis();
 
     // Make sure only diff of defaults is saved so when plugin defaults will change users are not stuck with outdated
     // config
     private /*final*/ @Nonnull SlaveOptions slaveOptions;
+    // Computed again once the options are replaced
+    private transient volatile EffectiveOptions effective;
 
     private final @Nonnull List<JCloudsSlaveTemplate> templates;
 
@@ -227,13 +236,24 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
     }
 
     public @Nonnull SlaveOptions getEffectiveSlaveOptions() {
-        return DescriptorImpl.DEFAULTS.override(slaveOptions);
+        EffectiveOptions effective = EffectiveOptions.of(this.effective, DescriptorImpl.DEFAULTS, slaveOptions);
+        this.effective = effective;
+        return effective.get();
     }
 
     public @Nonnull SlaveOptions getRawSlaveOptions() {
         return slaveOptions;
     }
 
+    /**
+     * Remote API of the cloud, exposing its statistics and the ones of its templates.
+     */
+    public @Nonnull Api getApi() {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        return new Api(this);
+    }
+
+    @Exported
     public @Nonnull List<JCloudsSlaveTemplate> getTemplates() {
         return templates;
     }
@@ -267,28 +287,58 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
         this.cleanfreq = cleanfreq;
     }
 
+    public long getCleanupBudget() {
+        return cleanupBudget;
+    }
+
+    @DataBoundSetter
+    public void setCleanupBudget(long cleanupBudget) {
+        this.cleanupBudget = Math.max(0, cleanupBudget);
+    }
+
+    /**
+     * Time a single cleanup cycle can take before it yields the rest of its work to the next one.
+     */
+    public long getCleanupBudgetToMillis() {
+        return cleanupBudget > 0 ? cleanupBudget * 1000 : getCleanfreqToMillis();
+    }
+
+    /**
+     * Measurements of the last cleanup cycle, null if not run yet.
+     */
+    @Exported
+    public @CheckForNull CleanupStatistics getCleanupStatistics() {
+        JCloudsCleanupThread cleanup = ExtensionList.lookup(AsyncPeriodicWork.class).get(JCloudsCleanupThread.class);
+        return cleanup == null ? null : cleanup.getStatistics(name);
+    }
+
+    /**
+     * Executor running OpenStack I/O of all the clouds.
+     */
+    @Exported
+    public @Nonnull OpenstackExecutor getExecutor() {
+        return OpenstackExecutor.get();
+    }
+
     /**
      * Get a queue of templates to be used to provision slaves of label.
      *
      * The queue contains the same template in as many instances as is the number of machines that can be safely
      * provisioned without violating instanceCap constrain.
      */
-    private @Nonnull Queue<JCloudsSlaveTemplate> getAvailableTemplateProvider(
+    /*package for testing*/ @Nonnull Queue<JCloudsSlaveTemplate> getAvailableTemplateProvider(
             @CheckForNull Label label, int excessWorkload) {
         final int globalMax = getEffectiveSlaveOptions().getInstanceCap();
 
         final Queue<JCloudsSlaveTemplate> queue = new ConcurrentLinkedDeque<>();
 
-        List<JCloudsComputer> cloudComputers = JCloudsComputer.getAll().stream()
-                .filter(it -> name.equals(it.getId().getCloudName()))
-                .collect(Collectors.toList());
-
-        int nodeCount = cloudComputers.size();
+        // Parked nodes and servers are limited by templates, they count towards the caps only once unparked
+        int nodeCount = countUnparked(JCloudsComputer.getAll(name));
         if (nodeCount >= globalMax) {
             return queue; // more slaves then declared - no need to query openstack
         }
 
-        final List<Server> runningNodes = getOpenstack().getRunningNodes();
+        final List<Server> runningNodes = getUnparkedServers();
 
         int serverCount = runningNodes.size();
         if (serverCount >= globalMax) {
@@ -303,9 +353,7 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
                 SlaveOptions opts = t.getEffectiveSlaveOptions();
                 final int templateMax = opts.getInstanceCap();
                 long templateNodeCount = Math.max(
-                        cloudComputers.stream()
-                                .filter(it -> t.getName().equals(it.getId().getTemplateName()))
-                                .count(),
+                        countUnparked(JCloudsComputer.getAll(name, t.getName())),
                         runningNodes.stream().filter(t::hasProvisioned).count());
                 if (templateNodeCount >= templateMax) continue; // Exceeded
 
@@ -324,6 +372,22 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
         return queue;
     }
 
+    private static int countUnparked(@Nonnull List<JCloudsComputer> computers) {
+        int count = 0;
+        for (JCloudsComputer computer : computers) {
+            if (!computer.isParked()) count++;
+        }
+        return count;
+    }
+
+    private @Nonnull List<Server> getUnparkedServers() {
+        List<Server> servers = new ArrayList<>();
+        for (Server server : getOpenstack().getRunningNodes()) {
+            if (!Openstack.isParked(server)) servers.add(server);
+        }
+        return servers;
+    }
+
     @Override
     public Collection<NodeProvisioner.PlannedNode> provision(CloudState cs, int excessWorkload) {
         Label label = cs.getLabel();
@@ -341,12 +405,28 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
                 break;
             }
 
-            LOGGER.fine("Provisioning slave for " + label + " from template " + template.getName());
-
             int numExecutors = template.getEffectiveSlaveOptions().getNumExecutors();
 
+            // Parked server comes back sooner than a new one boots, the node is already known to Jenkins
+            if (template.unpark()) {
+                excessWorkload -= numExecutors;
+                continue;
+            }
+
+            LOGGER.fine("Provisioning slave for " + label + " from template " + template.getName());
+
             ProvisioningActivity.Id id = new ProvisioningActivity.Id(this.name, template.getName());
-            Future<Node> task = Computer.threadPoolForRemoting.submit(new NodeCallable(this, template, id));
+            CompletableFuture<JCloudsSlave> provisioning = template.provisionSlaveAsync(this, id);
+            CompletableFuture<Node> task = provisioning.thenApply(node -> {
+                LOGGER.fine(String.format("Slave %s launched successfully", node.getDisplayName()));
+                return node;
+            });
+            // Cancelling the planned node is to stop the provisioning
+            task.whenComplete((node, ex) -> {
+                if (task.isCancelled()) {
+                    provisioning.cancel(false);
+                }
+            });
             plannedNodeList.add(new TrackedPlannedNode(id, numExecutors, task));
 
             excessWorkload -= numExecutors;
@@ -354,26 +434,6 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
         return plannedNodeList;
     }
 
-    private static final class NodeCallable implements Callable<Node> {
-        private final JCloudsCloud cloud;
-        private final JCloudsSlaveTemplate template;
-        private final ProvisioningActivity.Id id;
-
-        NodeCallable(JCloudsCloud cloud, JCloudsSlaveTemplate template, ProvisioningActivity.Id id) {
-            this.cloud = cloud;
-            this.template = template;
-            this.id = id;
-        }
-
-        @Override
-        public Node call() {
-            JCloudsSlave jcloudsSlave = template.provisionSlave(cloud, id);
-
-            LOGGER.fine(String.format("Slave %s launched successfully", jcloudsSlave.getDisplayName()));
-            return jcloudsSlave;
-        }
-    }
-
     @Restricted(NoExternalUse.class)
     public /*for mocking*/ @CheckForNull String slaveIsWaitingFor(@Nonnull JCloudsSlave slave)
             throws ProvisioningFailedException {
@@ -423,7 +483,7 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
             return;
         }
 
-        List<Server> nodes = getOpenstack().getRunningNodes();
+        List<Server> nodes = getUnparkedServers();
         final int global = nodes.size();
 
         int globalCap = getEffectiveSlaveOptions().getInstanceCap();
@@ -470,10 +530,10 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
                 }
             }
         };
-        ScheduledFuture<?> schedule = Timer.get().schedule(performProvisioning, 0, TimeUnit.SECONDS);
+        Future<Void> provisioning = OpenstackExecutor.get().submit(performProvisioning);
         // Wait for fast failures and present them to user on best effort basis
         try {
-            schedule.get(3, TimeUnit.SECONDS);
+            provisioning.get(3, TimeUnit.SECONDS);
         } catch (ExecutionException e) {
             // Fast failure
             throw e.getCause();
@@ -560,6 +620,16 @@ public class JCloudsCloud extends Cloud implements SlaveOptions.Holder {
                 .fsRoot("/jenkins")
                 .securityGroups("default")
                 .configDrive(false)
+                .portPoolSize(0)
+                .parkLimit(0)
+                .parkMaxAge(0)
+                .parkSuspend(false)
+                .recycle(false)
+                .bakeInterval(0)
+                .bakeRetain(0)
+                .launchRetryDelay((int) JCloudsLauncher.DEFAULT_RETRY_DELAY)
+                .launchMaxRetryDelay((int) JCloudsLauncher.DEFAULT_MAX_RETRY_DELAY)
+                .compactPersistence(false)
                 .build();
 
         @Override
@@ -1,6 +1,5 @@
 package jenkins.plugins.openstack.compute;
 
-import hudson.model.Computer;
 import hudson.model.Executor;
 import hudson.model.Queue;
 import hudson.remoting.Channel;
@@ -12,14 +11,16 @@ import hudson.slaves.RetentionStrategy;
 import hudson.slaves.SlaveComputer;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.servlet.http.HttpServletResponse;
 import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.cloudstats.CloudStatistics;
 import org.jenkinsci.plugins.cloudstats.ProvisioningActivity;
 import org.jenkinsci.plugins.cloudstats.TrackedItem;
 import org.kohsuke.accmod.Restricted;
@@ -40,18 +41,32 @@ public class JCloudsComputer extends AbstractCloudComputer<JCloudsSlave> impleme
     private final ProvisioningActivity.Id provisioningId;
     private volatile AtomicInteger used = new AtomicInteger(0);
     private transient long connectedSince;
+    // Single-use computer retired after its build, its server can be reused for a new node
+    private transient volatile boolean recyclable;
+    // Attempts of the last launch, null if not launched since Jenkins started
+    private transient volatile LaunchStatistics.Launch lastLaunch;
+    // Parking of the server in progress, null if not parked since Jenkins started
+    private transient volatile Future<?> parking;
 
     /**
      * Get all Openstack computers.
      */
     public static @Nonnull List<JCloudsComputer> getAll() {
-        ArrayList<JCloudsComputer> out = new ArrayList<>();
-        for (final Computer c : Jenkins.get().getComputers()) {
-            if (c instanceof JCloudsComputer) {
-                out.add((JCloudsComputer) c);
-            }
-        }
-        return out;
+        return ComputerRegistry.get().getAll();
+    }
+
+    /**
+     * Get Openstack computers of a cloud.
+     */
+    public static @Nonnull List<JCloudsComputer> getAll(@Nonnull String cloudName) {
+        return ComputerRegistry.get().getAll(cloudName);
+    }
+
+    /**
+     * Get Openstack computers provisioned from a template.
+     */
+    public static @Nonnull List<JCloudsComputer> getAll(@Nonnull String cloudName, @Nonnull String templateName) {
+        return ComputerRegistry.get().getAll(cloudName, templateName);
     }
 
     public JCloudsComputer(JCloudsSlave slave) {
@@ -64,6 +79,12 @@ public class JCloudsComputer extends AbstractCloudComputer<JCloudsSlave> impleme
         return super.getNode();
     }
 
+    @Override
+    protected void onRemoved() {
+        super.onRemoved();
+        ComputerRegistry.get().remove(this);
+    }
+
     @Override
     public @Nonnull ProvisioningActivity.Id getId() {
         return provisioningId;
@@ -88,6 +109,86 @@ public class JCloudsComputer extends AbstractCloudComputer<JCloudsSlave> impleme
         return getOfflineCause() instanceof PendingTermination;
     }
 
+    /**
+     * Attempts of the last launch of the agent, null if not launched since Jenkins started.
+     */
+    public @CheckForNull LaunchStatistics.Launch getLastLaunch() {
+        return lastLaunch;
+    }
+
+    /*package*/ void setLastLaunch(@Nonnull LaunchStatistics.Launch launch) {
+        lastLaunch = launch;
+    }
+
+    /**
+     * Is the server parked, waiting to be brought back when needed.
+     */
+    public boolean isParked() {
+        return getOfflineCause() instanceof Parked;
+    }
+
+    /**
+     * Take the computer offline for its server to be parked.
+     *
+     * @param parking Task parking the server, to be started by the caller once the computer is offline.
+     */
+    /*package*/ synchronized void setParked(@Nonnull JCloudsSlave node, @Nonnull Future<?> parking) {
+        LOGGER.info("Parking " + getName());
+        node.setParked();
+        this.parking = parking;
+        Parked cause = new Parked();
+        setTemporarilyOffline(true, cause);
+        disconnect(cause);
+    }
+
+    /**
+     * Take the computer offline again when its node was parked before Jenkins restarted.
+     */
+    /*package*/ synchronized void restoreParked() {
+        JCloudsSlave node = getNode();
+        if (node == null || node.getParkedTime() == 0 || isParked()) return;
+
+        LOGGER.fine("Restoring parked " + getName());
+        setTemporarilyOffline(true, new Parked());
+    }
+
+    /**
+     * Wait for the server to get parked so it is not brought back while still being parked.
+     */
+    /*package*/ void awaitParking() throws InterruptedException {
+        Future<?> parking = this.parking;
+        if (parking == null) return;
+        try {
+            parking.get();
+        } catch (ExecutionException ex) {
+            // Logged by the task
+        }
+    }
+
+    /**
+     * Claim parked computer and start connecting it.
+     *
+     * @return false if no longer parked.
+     */
+    /*package*/ synchronized boolean unpark() {
+        JCloudsSlave node = getNode();
+        if (!isParked() || node == null) return false;
+
+        node.setUnparkRequested();
+        setTemporarilyOffline(false, null);
+        connect(false);
+        return true;
+    }
+
+    /**
+     * Delete parked computer unless it was claimed in the meantime.
+     */
+    /*package*/ synchronized void retireParked() {
+        if (isParked()) {
+            setPendingDelete(true);
+        }
+    }
+
     /*package*/ boolean isUserOffline() {
         return getOfflineCause() instanceof OfflineCause.UserCause;
     }
@@ -119,6 +220,12 @@ public class JCloudsComputer extends AbstractCloudComputer<JCloudsSlave> impleme
         return used.get();
     }
 
+    @Override
+    public void taskAccepted(Executor executor, Queue.Task task) {
+        super.taskAccepted(executor, task);
+        JCloudsPreCreationThread.invalidateReadyCount(this);
+    }
+
     @Override
     public void taskCompleted(Executor executor, Queue.Task task, long durationMS) {
         super.taskCompleted(executor, task, durationMS);
@@ -137,6 +244,7 @@ public class JCloudsComputer extends AbstractCloudComputer<JCloudsSlave> impleme
         // If the retention time for this computer is zero, this means it
         // should not be re-used: mark the node as "pending delete".
         if (getRetentionTime() == 0 && !isUserOffline()) {
+            recyclable = true;
             setPendingDelete(true);
         }
     }
@@ -178,6 +286,10 @@ public class JCloudsComputer extends AbstractCloudComputer<JCloudsSlave> impleme
         LOGGER.info("Deleting slave " + getName() + " after executing " + getTasksExecuted() + " builds");
         setAcceptingTasks(false); // Prevent accepting further task while we are shutting down
         try {
+            if (recyclable && isPendingDelete() && recycle(slave)) {
+                LOGGER.info("Recycled slave " + getName());
+                return;
+            }
             slave.terminate();
             LOGGER.info("Deleted slave " + getName());
         } catch (Throwable ex) {
@@ -186,6 +298,28 @@ public class JCloudsComputer extends AbstractCloudComputer<JCloudsSlave> impleme
         }
     }
 
+    /**
+     * Remove the node keeping its server that was rebuilt for a new node.
+     */
+    private boolean recycle(@Nonnull JCloudsSlave slave) throws IOException {
+        JCloudsSlaveTemplate template;
+        try {
+            template = JCloudsCloud.getByName(getId().getCloudName()).getTemplate(getId().getTemplateName());
+        } catch (IllegalArgumentException ex) {
+            return false; // Cloud is gone
+        }
+        if (template == null || template.recycle(slave) == null) return false;
+
+        ProvisioningActivity activity = CloudStatistics.get().getActivityFor(slave);
+        if (activity != null) {
+            activity.enterIfNotAlready(ProvisioningActivity.Phase.COMPLETED);
+        }
+        // Not terminating the node as that would destroy the server
+        slave.onRemoved();
+        Jenkins.get().removeNode(slave);
+        return true;
+    }
+
     public void setChannel(Channel channel, OutputStream launchLog, Channel.Listener listener)
             throws IOException, InterruptedException {
         super.setChannel(channel, launchLog, listener);
@@ -208,6 +342,13 @@ public class JCloudsComputer extends AbstractCloudComputer<JCloudsSlave> impleme
         return Math.max(connectedSince, idleStart);
     }
 
+    private static final class Parked extends SimpleOfflineCause {
+
+        private Parked() {
+            super(Messages._ParkedCause());
+        }
+    }
+
     private static final class PendingTermination extends SimpleOfflineCause {
 
         private PendingTermination() {
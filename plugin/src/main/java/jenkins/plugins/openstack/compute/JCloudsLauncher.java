@@ -9,9 +9,12 @@ import hudson.slaves.DelegatingComputerLauncher;
 import hudson.slaves.JNLPLauncher;
 import hudson.slaves.SlaveComputer;
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import jenkins.plugins.openstack.compute.slaveopts.LauncherFactory;
 
 /*
  * This class as designed, is not supposed to be shared among multiple computers.
@@ -20,6 +23,9 @@ public class JCloudsLauncher extends DelegatingComputerLauncher {
 
     private static final Logger LOGGER = Logger.getLogger(JCloudsLauncher.class.getName());
 
+    /*package*/ static final long DEFAULT_RETRY_DELAY = 500;
+    /*package*/ static final long DEFAULT_MAX_RETRY_DELAY = 10_000;
+
     public JCloudsLauncher(@Nonnull ComputerLauncher launcher) {
         super(launcher);
     }
@@ -35,19 +41,103 @@ public class JCloudsLauncher extends DelegatingComputerLauncher {
         }
 
         JCloudsSlave node = (JCloudsSlave) n;
+        if (node.consumeUnparkRequest()) {
+            JCloudsComputer c = (JCloudsComputer) computer;
+            c.awaitParking();
+            if (c.isPendingDelete()) return; // Parking failed
+
+            try {
+                JCloudsCloud.getByName(node.getId().getCloudName()).getOpenstack().unparkServer(node.getServerId());
+            } catch (RuntimeException ex) {
+                listener.error("Unable to bring the server back from parking");
+                ex.printStackTrace(listener.getLogger());
+                c.setPendingDelete(true);
+                return;
+            }
+            refreshLauncher(node);
+        }
+
         Integer configuredTimeout = node.getSlaveOptions().getStartTimeout();
         if (configuredTimeout == null) throw new NullPointerException();
-        long timeout = node.getCreatedTime() + configuredTimeout;
-        do {
-            launcher(computer).launch(computer, listener);
-            if (computer.getChannel() != null) return;
+        long timeout = node.getLaunchStartTime() + configuredTimeout;
+
+        JCloudsSlaveTemplate template = getTemplate(node);
+        long retryDelay = template == null ? DEFAULT_RETRY_DELAY : template.getEffectiveLaunchRetryDelay();
+        long maxRetryDelay = template == null ? DEFAULT_MAX_RETRY_DELAY : template.getEffectiveLaunchMaxRetryDelay();
 
-            listener.getLogger().println("Launcher failed to bring the node online. Retrying ...");
+        LaunchStatistics.Launch launch = new LaunchStatistics.Launch(node.getLaunchStartTime());
+        if (computer instanceof JCloudsComputer) {
+            ((JCloudsComputer) computer).setLastLaunch(launch);
+        }
+        try {
+            long now;
+            do {
+                launch.attempt();
+                try {
+                    launcher(computer).launch(computer, listener);
+                } catch (IOException | RuntimeException ex) {
+                    launch.failed(ex.getClass().getSimpleName());
+                    refreshLauncher(node); // For the next launch
+                    throw ex;
+                }
+                if (computer.getChannel() != null) {
+                    launch.succeeded();
+                    return;
+                }
+                launch.failed("Not online");
+                refreshLauncher(node);
+
+                now = System.currentTimeMillis();
+                long delay = Math.min(getRetryDelay(launch.getAttempts(), retryDelay, maxRetryDelay), timeout - now);
+                if (delay <= 0) break;
 
-            Thread.sleep(2000);
-        } while (System.currentTimeMillis() < timeout);
+                listener.getLogger()
+                        .println("Launcher failed to bring the node online. Retrying in " + delay + "ms ...");
+                Thread.sleep(delay);
+                now = System.currentTimeMillis();
+            } while (now < timeout);
 
-        listener.getLogger().println("Launcher failed to bring the node online within timeout.");
+            listener.getLogger().println("Launcher failed to bring the node online within timeout.");
+        } finally {
+            LOGGER.fine("Launch of " + node.getNodeName() + ": " + launch);
+            if (template != null) {
+                template.getLaunchStatistics().record(launch);
+            }
+        }
+    }
+
+    /**
+     * Delay before the launch attempt that follows the given one.
+     *
+     * The delay doubles with every attempt up to the max. Half of it is random so agents failing at once do not retry
+     * at once.
+     */
+    /*package*/ static long getRetryDelay(int attempt, long retryDelay, long maxRetryDelay) {
+        long delay = Math.min(maxRetryDelay, retryDelay << Math.min(attempt - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Create the launcher again in case the server can no longer be reached the way it was.
+     */
+    private void refreshLauncher(@Nonnull JCloudsSlave node) {
+        LauncherFactory factory = node.getLauncherFactory();
+        try {
+            if (factory.isLauncherOutdated(node)) {
+                LOGGER.info("Access address of " + node.getNodeName() + " changed to " + node.getPublicAddress());
+                launcher = factory.createLauncher(node);
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Unable to refresh launcher of " + node.getNodeName(), ex);
+        }
+    }
+
+    private static @CheckForNull JCloudsSlaveTemplate getTemplate(@Nonnull JCloudsSlave node) {
+        try {
+            return JCloudsCloud.getByName(node.getId().getCloudName()).getTemplate(node.getId().getTemplateName());
+        } catch (IllegalArgumentException ex) {
+            return null; // Cloud is gone
+        }
     }
 
     @Override
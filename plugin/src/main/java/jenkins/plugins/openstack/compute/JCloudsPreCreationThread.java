@@ -6,8 +6,12 @@ import hudson.model.AsyncPeriodicWork;
 import hudson.model.TaskListener;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nonnull;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
@@ -36,6 +40,11 @@ import org.kohsuke.accmod.restrictions.NoExternalUse;
 public final class JCloudsPreCreationThread extends AsyncPeriodicWork {
     private static final Logger LOGGER = Logger.getLogger(JCloudsPreCreationThread.class.getName());
 
+    // Retention of all the computers is checked in a burst, the count is reused for the whole of it
+    private static final long READY_COUNT_TTL = TimeUnit.SECONDS.toMillis(10);
+    // Ready node counts by cloud and template name
+    private static final Map<String, ReadyCount> READY_COUNTS = new ConcurrentHashMap<>();
+
     public JCloudsPreCreationThread() {
         super("OpenStack slave pre-creation");
     }
@@ -50,6 +59,8 @@ public final class JCloudsPreCreationThread extends AsyncPeriodicWork {
         HashMap<JCloudsSlaveTemplate, JCloudsCloud> requiredCapacity = new HashMap<>();
         for (JCloudsCloud cloud : JCloudsCloud.getClouds()) {
             for (JCloudsSlaveTemplate template : cloud.getTemplates()) {
+                template.replenishPortPool();
+
                 SlaveOptions to = template.getEffectiveSlaveOptions();
                 if (to.getInstancesMin() > 0) {
                     requiredCapacity.put(template, cloud);
@@ -83,6 +94,7 @@ public final class JCloudsPreCreationThread extends AsyncPeriodicWork {
                         "Pre-creating " + toProvision + " instance(s) for template " + template.getName() + " in cloud "
                                 + cloud.name);
                 for (int i = 0; i < toProvision; i++) {
+                    if (template.unpark()) continue;
                     try {
                         cloud.provisionSlaveExplicitly(template);
                     } catch (Throwable ex) {
@@ -97,6 +109,10 @@ public final class JCloudsPreCreationThread extends AsyncPeriodicWork {
     /**
      * Should a slave be retained to meet the minimum instances constraint?
      *
+     * Ready nodes are counted once per template for all the computers checked in a short succession. Computer found not
+     * needed is deducted from the count as it is about to be retired, so computers reaching their retention time at
+     * once do not all retire when only some of them are in excess.
+     *
      * @param computer Idle, not pending delete, not user offline but overdue w.r.t. retention time.
      */
     /*package*/ static boolean isNeededReadyComputer(JCloudsComputer computer) {
@@ -110,13 +126,50 @@ public final class JCloudsPreCreationThread extends AsyncPeriodicWork {
             String templateName = computer.getId().getTemplateName();
             JCloudsSlaveTemplate template = cloud.getTemplate(templateName);
             if (template != null) {
-                int readyNodes = template.getAvailableNodesTotal();
-                return readyNodes <= instancesMin;
+                long now = System.currentTimeMillis();
+                ReadyCount count = READY_COUNTS.compute(
+                        getReadyCountKey(computer),
+                        (k, c) -> c != null && now - c.counted < READY_COUNT_TTL
+                                ? c
+                                : new ReadyCount(template.getAvailableNodesTotal(), now));
+                return !count.retire(instancesMin);
             }
         }
         return false;
     }
 
+    /**
+     * Count ready nodes of computer's template again as it is no longer ready.
+     */
+    /*package*/ static void invalidateReadyCount(@Nonnull JCloudsComputer computer) {
+        READY_COUNTS.remove(getReadyCountKey(computer));
+    }
+
+    private static @Nonnull String getReadyCountKey(@Nonnull JCloudsComputer computer) {
+        return computer.getId().getCloudName() + ":" + computer.getId().getTemplateName();
+    }
+
+    private static final class ReadyCount {
+        private final @Nonnull AtomicInteger ready;
+        private final long counted;
+
+        private ReadyCount(int ready, long counted) {
+            this.ready = new AtomicInteger(ready);
+            this.counted = counted;
+        }
+
+        /**
+         * @return true if there are more ready nodes than needed, one of them is deducted.
+         */
+        private boolean retire(int needed) {
+            while (true) {
+                int current = ready.get();
+                if (current <= needed) return false;
+                if (ready.compareAndSet(current, current - 1)) return true;
+            }
+        }
+    }
+
     @Override
     protected Level getNormalLoggingLevel() {
         return Level.FINE;
@@ -48,6 +48,14 @@ public class JCloudsRetentionStrategy extends RetentionStrategy<JCloudsComputer>
 
     private void doCheck(JCloudsComputer c) {
         if (c.isPendingDelete()) return; // No need to do it again
+        if (c.isParked()) {
+            JCloudsSlaveTemplate template = getTemplate(c);
+            if (template == null || template.isParkExpired(c)) {
+                LOGGER.info("Scheduling parked " + c.getName() + " for termination");
+                c.retireParked();
+            }
+            return;
+        }
         if (c.isConnecting())
             return; // Do not discard slave while launching for the first time when "idle time" does not make much sense
         if (!c.isIdle() || c.isUserOffline()) return; // Occupied by user initiated activity
@@ -64,6 +72,9 @@ public class JCloudsRetentionStrategy extends RetentionStrategy<JCloudsComputer>
                 LOGGER.fine("Keeping " + c.getName() + " to meet minimum requirements");
                 return;
             }
+            JCloudsSlaveTemplate template = getTemplate(c);
+            if (template != null && template.park(c)) return;
+
             LOGGER.info("Scheduling " + c.getName() + " for termination after " + retentionTime
                     + " minutes as it was idle since " + new Date(idleSince));
             if (LOGGER.isLoggable(Level.FINE)) {
@@ -79,6 +90,14 @@ public class JCloudsRetentionStrategy extends RetentionStrategy<JCloudsComputer>
         }
     }
 
+    private static JCloudsSlaveTemplate getTemplate(JCloudsComputer c) {
+        try {
+            return JCloudsCloud.getByName(c.getId().getCloudName()).getTemplate(c.getId().getTemplateName());
+        } catch (IllegalArgumentException ex) {
+            return null; // Cloud is gone
+        }
+    }
+
     /*package for mocking*/ long getNow() {
         return System.currentTimeMillis();
     }
@@ -88,6 +107,8 @@ public class JCloudsRetentionStrategy extends RetentionStrategy<JCloudsComputer>
      */
     @Override
     public void start(JCloudsComputer c) {
+        c.restoreParked(); // In case it was parked before restart
+        if (c.isParked()) return; // Connected once unparked
         c.connect(false);
     }
 
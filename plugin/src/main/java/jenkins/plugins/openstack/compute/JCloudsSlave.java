@@ -1,7 +1,5 @@
 package jenkins.plugins.openstack.compute;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.ImmutableList;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.EnvVars;
@@ -24,13 +22,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
-import jenkins.model.Jenkins;
 import jenkins.plugins.openstack.compute.internal.DestroyMachine;
 import jenkins.plugins.openstack.compute.internal.Openstack;
 import jenkins.plugins.openstack.compute.slaveopts.LauncherFactory;
@@ -67,11 +63,17 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
     // Full/effective options
     private /*final*/ @Nonnull SlaveOptions options;
     private final @Nonnull ProvisioningActivity.Id provisioningId;
-    private transient @Nonnull Cache<String, Map<String, String>> cache;
 
     private /*final*/ @Nonnull String nodeId;
+    // Address to access the server, null for nodes persisted before it was recorded until resolved
+    private volatile @CheckForNull String accessAddress;
 
-    private final long created = System.currentTimeMillis();
+    private final long created;
+    // Time the server was parked, 0 when it is not. Persisted so parked nodes are not launched after restart.
+    private volatile long parked;
+    // Time the server was last asked to be brought back from parking, 0 if never
+    private transient volatile long unparked;
+    private transient volatile boolean unparkRequested;
 
     // Backward compatibility
     private transient @Deprecated int overrideRetentionTime;
@@ -96,16 +98,40 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
         this.provisioningId = id;
         this.options = slaveOptions;
         this.nodeId = metadata.getId();
-        this.cache = makeCache();
+        this.accessAddress = Openstack.getAccessIpAddress(metadata);
+        this.created = System.currentTimeMillis();
 
         setNumExecutors(slaveOptions.getNumExecutors());
         setMode(Mode.NORMAL);
         setLabelString(labelString);
         setRetentionStrategy(new JCloudsRetentionStrategy());
-        setNodeProperties(mkNodeProperties(Openstack.getAccessIpAddress(metadata), slaveOptions.getNodeProperties()));
+        setNodeProperties(mkNodeProperties(accessAddress, slaveOptions.getNodeProperties()));
         setLauncher(new JCloudsLauncher(getLauncherFactory().createLauncher(this)));
     }
 
+    /**
+     * Node restored from its compact form.
+     */
+    private JCloudsSlave(@Nonnull Compact compact, @Nonnull SlaveOptions slaveOptions)
+            throws IOException, Descriptor.FormException {
+        super(compact.name, slaveOptions.getFsRoot(), null);
+
+        this.cloudName = compact.provisioningId.getCloudName();
+        this.provisioningId = compact.provisioningId;
+        this.options = slaveOptions;
+        this.nodeId = compact.nodeId;
+        this.accessAddress = compact.accessAddress;
+        this.created = compact.created;
+        this.parked = compact.parked;
+
+        setNumExecutors(slaveOptions.getNumExecutors());
+        setMode(Mode.NORMAL);
+        setLabelString(compact.labelString);
+        setRetentionStrategy(new JCloudsRetentionStrategy());
+        setNodeProperties(mkNodeProperties(accessAddress, slaveOptions.getNodeProperties()));
+        setLauncher(new JCloudsLauncher(getLauncherFactory().restoreLauncher(this)));
+    }
+
     private static @Nonnull List<NodeProperty<? extends Node>> mkNodeProperties(
             @CheckForNull String vmIpAddressOrNull,
             @CheckForNull final List<? extends NodeProperty<?>> templateNPsOrNull) {
@@ -132,7 +158,7 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
                 b.add(envVarsNP);
                 envVarsAdded = true;
             } else {
-                final NodeProperty<?> copyOfTemplateNP = makeCopy(templateNP);
+                final NodeProperty<?> copyOfTemplateNP = NodePropertyPrototypes.copy(templateNP);
                 b.add(copyOfTemplateNP);
             }
         }
@@ -143,13 +169,6 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
         return nodePropertiesList;
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> T makeCopy(final T original) {
-        final String xml = Jenkins.XSTREAM.toXML(original);
-        final Object copy = Jenkins.XSTREAM.fromXML(xml);
-        return (T) copy;
-    }
-
     // In 2.0, "nodeId" was removed and replaced by "metadata". Then metadata was deprecated in favour of "nodeId"
     // again.
     // The configurations stored are expected to have at least one of them.
@@ -157,7 +176,6 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
     @SuppressFBWarnings({"RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE", "The fields are non-null after readResolve"})
     protected Object readResolve() {
         super.readResolve();
-        cache = makeCache();
         if (options == null) {
             // Node options are not of override of anything so we need to ensure this fill all mandatory fields
             // We base the outdated config on current plugin defaults to increase the chance it will work.
@@ -188,9 +206,22 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
         return this;
     }
 
-    /** Creates a cache where data will be kept for a short duration before being discarded. */
-    private static @Nonnull <K, V> Cache<K, V> makeCache() {
-        return Caffeine.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).build();
+    // Persist the compact form instead when the template asks for it
+    private Object writeReplace() {
+        JCloudsSlaveTemplate template = getTemplate(provisioningId);
+        return template != null && template.getEffectiveSlaveOptions().getCompactPersistence()
+                ? new Compact(this, template)
+                : this;
+    }
+
+    private static @CheckForNull JCloudsSlaveTemplate getTemplate(@Nonnull ProvisioningActivity.Id id) {
+        String templateName = id.getTemplateName();
+        if (templateName == null) return null;
+        try {
+            return JCloudsCloud.getByName(id.getCloudName()).getTemplate(templateName);
+        } catch (IllegalArgumentException ex) {
+            return null; // Cloud is gone
+        }
     }
 
     /**
@@ -220,16 +251,14 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
     /**
      * Get settings from OpenStack about the Server for this slave.
      *
+     * The server is served from the {@link ServerInventory} of the cloud, not to look up servers one by one.
+     *
      * @return A Map of fieldName to value. This will not be null or empty.
      */
     @Restricted(DoNotUse.class) // Jelly
     public @Nonnull Map<String, String> getLiveOpenstackServerDetails() {
-        return getCachableData("liveData", (String unused) -> readLiveOpenstackServerDetails());
-    }
-
-    private @Nonnull Map<String, String> readLiveOpenstackServerDetails() {
         final Map<String, String> result = new LinkedHashMap<>();
-        final Server s = readOpenstackServer();
+        final Server s = ServerInventory.get(cloudName).getServer(nodeId, created);
         if (s == null) {
             return result;
         }
@@ -288,20 +317,6 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
         return result;
     }
 
-    private Server readOpenstackServer() {
-        try {
-            return getOpenstack(cloudName).getServerById(nodeId);
-        } catch (NoSuchElementException ex) {
-            // just return empty
-        } catch (Exception ex) {
-            LOGGER.log(
-                    Level.WARNING,
-                    "Unable to read details of server '" + nodeId + "' from cloud '" + cloudName + "'.",
-                    ex);
-        }
-        return null;
-    }
-
     private static void putIfNotNullOrEmpty(
             @Nonnull final Map<String, String> mapToBeAddedTo,
             @Nonnull final String fieldName,
@@ -314,29 +329,39 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
         }
     }
 
-    /** Gets something from the cache, loading it into the cache if necessary. */
-    private @Nonnull Map<String, String> getCachableData(
-            @Nonnull final String key, @Nonnull final Function<String, Map<String, String>> dataloader) {
-        try {
-            return Objects.requireNonNull(cache.get(key, dataloader));
-        } catch (RuntimeException e) { // Propagated from cacheMissFunction
-            final Throwable cause = e.getCause();
-            if (cause instanceof RuntimeException) {
-                throw (RuntimeException) cause;
-            }
-            throw e;
-        }
-    }
-
     /**
      * Get public IP address of the server.
      *
+     * The address is resolved when the node is provisioned, see {@link #refreshPublicAddress()}.
+     *
      * @throws NoSuchElementException The server does not exist anymore. Plugin should not get slave to this state ever
      * but there is no way to prevent external machine deletion.
      */
     public @CheckForNull String getPublicAddress() throws NoSuchElementException {
+        String address = accessAddress;
+        return address != null ? address : refreshPublicAddress();
+    }
 
-        return Openstack.getAccessIpAddress(getOpenstack(cloudName).getServerById(nodeId));
+    /**
+     * Resolve public IP address of the server again, as its floating IP or ports might have changed.
+     *
+     * Changed address is persisted and exposed to builds as OPENSTACK_PUBLIC_IP.
+     *
+     * @throws NoSuchElementException The server does not exist anymore.
+     */
+    @Restricted(NoExternalUse.class)
+    public @CheckForNull String refreshPublicAddress() throws NoSuchElementException {
+        String address = Openstack.getAccessIpAddress(getOpenstack(cloudName).getServerById(nodeId));
+        if (Objects.equals(address, accessAddress)) return address;
+
+        accessAddress = address;
+        try {
+            // Saves the node as well
+            setNodeProperties(mkNodeProperties(address, options.getNodeProperties()));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to persist new address of " + getNodeName(), ex);
+        }
+        return address;
     }
 
     /**
@@ -367,7 +392,9 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
     @Override
     public AbstractCloudComputer<JCloudsSlave> createComputer() {
         LOGGER.info("Creating a new computer for " + getNodeName());
-        return new JCloudsComputer(this);
+        JCloudsComputer computer = new JCloudsComputer(this);
+        ComputerRegistry.get().add(computer);
+        return computer;
     }
 
     @Override
@@ -379,13 +406,55 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
         return created;
     }
 
+    /**
+     * Completed with the time the server reported it is ready, see {@link ReadinessCallback}.
+     */
+    @Restricted(NoExternalUse.class)
+    public @Nonnull CompletableFuture<Long> getReadinessReport() {
+        return ReadinessCallback.getReport(getNodeName());
+    }
+
+    /**
+     * Time the server started to come up, either created or brought back from parking.
+     */
+    public long getLaunchStartTime() {
+        return Math.max(created, unparked);
+    }
+
+    /**
+     * Time the server was parked, 0 when it is not.
+     */
+    public long getParkedTime() {
+        return parked;
+    }
+
+    /*package*/ void setParked() {
+        parked = System.currentTimeMillis();
+    }
+
+    /*package*/ void setUnparkRequested() {
+        unparked = System.currentTimeMillis();
+        unparkRequested = true;
+        parked = 0;
+    }
+
+    /**
+     * @return true if the server is to be brought back from parking before the agent is launched. The request is
+     *     consumed.
+     */
+    /*package*/ boolean consumeUnparkRequest() {
+        boolean requested = unparkRequested;
+        unparkRequested = false;
+        return requested;
+    }
+
     /**
      * @return True if the agent should have been up by now, and it is not. Note it could have been up momentarily before.
      */
     public boolean isLaunchTimedOut() {
         JCloudsComputer computer = getComputer();
         if (computer != null && computer.isOnline()) return false;
-        long existsFor = System.currentTimeMillis() - created;
+        long existsFor = System.currentTimeMillis() - getLaunchStartTime();
         return existsFor > getSlaveOptions().getStartTimeout();
     }
 
@@ -423,12 +492,20 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
             }
         }
 
-        getLauncherFactory().onNodeTerminated();
+        onRemoved();
 
         // Wrap deletion disposables into statistics tracking disposables
         AsyncResourceDisposer.get().dispose(new RecordDisposal(new DestroyMachine(cloudName, nodeId), provisioningId));
     }
 
+    /**
+     * Let go of the state kept for the node once it is removed from Jenkins, whether its server is destroyed or not.
+     */
+    /*package*/ void onRemoved() {
+        getLauncherFactory().onNodeTerminated(this);
+        ReadinessCallback.forget(getNodeName());
+    }
+
     /**
      * Get computer {@link OfflineCause} provided it is severe enough the computer should be discarded.
      *
@@ -452,6 +529,54 @@ public class JCloudsSlave extends AbstractCloudSlave implements TrackedItem {
         return JCloudsCloud.getByName(cloudName).getOpenstack();
     }
 
+    /**
+     * Node persisted as a reference to its template and the options differing from those of the template.
+     *
+     * The full node is rebuilt from the template when loaded, so agents of templates with many of them come and go
+     * write and read a fraction of the data. Nodes of templates removed in the meantime are rebuilt from the options
+     * of the cloud, or the defaults, so the launcher factory is always persisted.
+     */
+    private static final class Compact {
+        private final @Nonnull String name;
+        private final @Nonnull ProvisioningActivity.Id provisioningId;
+        private final @Nonnull String nodeId;
+        private final @Nonnull String labelString;
+        private final long created;
+        private final long parked;
+        private final @CheckForNull String accessAddress;
+        // Difference compared to template
+        private final @Nonnull SlaveOptions options;
+
+        private Compact(@Nonnull JCloudsSlave node, @Nonnull JCloudsSlaveTemplate template) {
+            this.name = node.getNodeName();
+            this.provisioningId = node.provisioningId;
+            this.nodeId = node.nodeId;
+            this.labelString = node.getLabelString();
+            this.created = node.created;
+            this.parked = node.parked;
+            this.accessAddress = node.accessAddress;
+            this.options = node.options
+                    .eraseDefaults(template.getEffectiveSlaveOptions())
+                    .getBuilder()
+                    .launcherFactory(node.getLauncherFactory())
+                    .build();
+        }
+
+        private Object readResolve() throws IOException, Descriptor.FormException {
+            return new JCloudsSlave(this, getBaseOptions().override(options));
+        }
+
+        private @Nonnull SlaveOptions getBaseOptions() {
+            JCloudsSlaveTemplate template = getTemplate(provisioningId);
+            if (template != null) return template.getEffectiveSlaveOptions();
+            try {
+                return JCloudsCloud.getByName(provisioningId.getCloudName()).getEffectiveSlaveOptions();
+            } catch (IllegalArgumentException ex) {
+                return JCloudsCloud.DescriptorImpl.getDefaultOptions(); // Cloud is gone
+            }
+        }
+    }
+
     /**
      * Second layer disposable to track removal of Jenkins slave.
      *
@@ -8,20 +8,28 @@ import hudson.model.Describable;
 import hudson.model.Descriptor;
 import hudson.model.Failure;
 import hudson.model.Label;
-import hudson.model.TaskListener;
 import hudson.model.labels.LabelAtom;
 import hudson.util.FormValidation;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
@@ -29,9 +37,10 @@ import javax.annotation.Nonnull;
 import jenkins.model.Jenkins;
 import jenkins.plugins.openstack.compute.internal.DestroyMachine;
 import jenkins.plugins.openstack.compute.internal.Openstack;
-import jenkins.plugins.openstack.compute.internal.TokenGroup;
+import jenkins.plugins.openstack.compute.internal.OpenstackExecutor;
 import jenkins.plugins.openstack.compute.slaveopts.BootSource;
 import jenkins.plugins.openstack.compute.slaveopts.LauncherFactory;
+import jenkins.util.Timer;
 import org.jenkinsci.plugins.cloudstats.CloudStatistics;
 import org.jenkinsci.plugins.cloudstats.ProvisioningActivity;
 import org.jenkinsci.plugins.resourcedisposer.AsyncResourceDisposer;
@@ -40,15 +49,19 @@ import org.kohsuke.accmod.restrictions.DoNotUse;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
 import org.kohsuke.stapler.interceptor.RequirePOST;
 import org.openstack4j.api.Builders;
 import org.openstack4j.model.compute.Server;
 import org.openstack4j.model.compute.builder.ServerCreateBuilder;
+import org.openstack4j.model.image.v2.Image;
 import org.openstack4j.model.network.Network;
 
 /**
  * @author Vijay Kiran
  */
+@ExportedBean
 public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>, SlaveOptions.Holder {
 
     // To be attached on all servers provisioned from configured templates
@@ -61,6 +74,8 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
     private static final AtomicInteger nodeCounter = new AtomicInteger();
     // Default number of milliseconds to sleep before checking again if provisioning completed.
     private static final int pollingPeriodWhileWaitingForProvisioning = 6000;
+    // Lines of console log to look for the readiness of server to bake
+    private static final int BAKE_CONSOLE_LINES = 50;
 
     private final @Nonnull String name;
     private final @Nonnull String labelString;
@@ -68,7 +83,19 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
     // Difference compared to cloud
     private /*final*/ @Nonnull SlaveOptions slaveOptions;
 
+    // Newest image baked for the template and the time it was baked, if any. Looked up once Jenkins starts.
+    private transient volatile String bakedImageId;
+    private transient volatile long bakedAt;
+    private transient volatile boolean bakedKnown;
+
+    // Pool configuration the free pool ports were last verified to match, null if not yet
+    private transient volatile @CheckForNull List<Object> portPoolVerified;
+    // No port was claimed since the pool was last found full
+    private transient volatile boolean portPoolFull;
+
     private transient Set<LabelAtom> labelSet;
+    // Computed again once the options of the template or the cloud are replaced
+    private transient volatile EffectiveOptions effective;
     private /*final*/ transient JCloudsCloud cloud;
 
     // Backward compatibility
@@ -185,7 +212,10 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
     public @Nonnull SlaveOptions getEffectiveSlaveOptions() {
         // Make sure only diff of defaults is saved so when defaults will change users are not stuck with outdated
         // config
-        return cloud.getEffectiveSlaveOptions().override(slaveOptions);
+        EffectiveOptions effective =
+                EffectiveOptions.of(this.effective, cloud.getEffectiveSlaveOptions(), slaveOptions);
+        this.effective = effective;
+        return effective.get();
     }
 
     public @Nonnull SlaveOptions getRawSlaveOptions() {
@@ -193,10 +223,30 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
         return slaveOptions;
     }
 
+    /*package*/ long getEffectiveLaunchRetryDelay() {
+        int launchRetryDelay = getEffectiveSlaveOptions().getLaunchRetryDelay();
+        return launchRetryDelay > 0 ? launchRetryDelay : JCloudsLauncher.DEFAULT_RETRY_DELAY;
+    }
+
+    /*package*/ long getEffectiveLaunchMaxRetryDelay() {
+        int launchMaxRetryDelay = getEffectiveSlaveOptions().getLaunchMaxRetryDelay();
+        long max = launchMaxRetryDelay > 0 ? launchMaxRetryDelay : JCloudsLauncher.DEFAULT_MAX_RETRY_DELAY;
+        return Math.max(max, getEffectiveLaunchRetryDelay());
+    }
+
+    /**
+     * Measurements of agent launches of the nodes of this template since Jenkins started.
+     */
+    @Exported
+    public @Nonnull LaunchStatistics getLaunchStatistics() {
+        return LaunchStatistics.get(cloud.name, name);
+    }
+
     public Set<LabelAtom> getLabelSet() {
         return labelSet;
     }
 
+    @Exported
     public @Nonnull String getName() {
         return name;
     }
@@ -224,63 +274,45 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
      */
     public @Nonnull JCloudsSlave provisionSlave(@Nonnull JCloudsCloud cloud, @Nonnull ProvisioningActivity.Id id)
             throws JCloudsCloud.ProvisioningFailedException {
-        SlaveOptions opts = getEffectiveSlaveOptions();
-        int timeout = opts.getStartTimeout();
-        Server server = provisionServer(null, id);
-
-        JCloudsSlave node = null;
-        // Terminate node unless provisioned successfully
         try {
-            node = new JCloudsSlave(id, server, labelString, opts);
-
-            String cause;
-            while ((cause = cloud.slaveIsWaitingFor(node)) != null) {
-                if (node.isLaunchTimedOut()) {
-
-                    String timeoutMessage = String.format(
-                            "Failed to connect agent %s within timeout (%d ms): %s",
-                            node.getNodeName(), timeout, cause);
-                    Error errorQuerying = null;
-                    try {
-                        Server freshServer = cloud.getOpenstack().getServerById(server.getId());
-                        timeoutMessage += System.lineSeparator() + "Server state: " + freshServer;
-                        // TODO attach instance log (or tail of) to cloud statistics
-                    } catch (NoSuchElementException ex) {
-                        timeoutMessage += System.lineSeparator() + "Server does no longer exist: " + server.getId();
-                    } catch (Error ex) {
-                        errorQuerying = ex;
-                    }
-                    LOGGER.warning(timeoutMessage);
-                    JCloudsCloud.ProvisioningFailedException ex =
-                            new JCloudsCloud.ProvisioningFailedException(timeoutMessage);
-                    if (errorQuerying != null) {
-                        ex.addSuppressed(errorQuerying);
-                    }
-                    throw ex;
-                }
-
-                Thread.sleep(pollingPeriodWhileWaitingForProvisioning);
-            }
-
-            return node;
-        } catch (Throwable ex) {
-            JCloudsCloud.ProvisioningFailedException cause = ex instanceof JCloudsCloud.ProvisioningFailedException
-                    ? (JCloudsCloud.ProvisioningFailedException) ex
-                    : new JCloudsCloud.ProvisioningFailedException(ex.getMessage(), ex);
-
-            if (node != null) {
-                // No need to call AbstractCloudSlave#terminate() as this was never added to Jenkins
-                node._terminate(TaskListener.NULL);
-            }
-            throw cause;
+            return provisionSlaveAsync(cloud, id).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new JCloudsCloud.ProvisioningFailedException("Interrupted while provisioning", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new JCloudsCloud.ProvisioningFailedException(cause.getMessage(), cause);
         }
     }
 
+    /**
+     * Provision and connect as a slave without holding a thread while the node is getting ready.
+     *
+     * @return Future completed with the node once it is ready to be launched, it is to be added to Jenkins by the
+     *     caller. Completed exceptionally with {@link Openstack.ActionFailed} or
+     *     {@link JCloudsCloud.ProvisioningFailedException} if provisioning failed.
+     */
+    public @Nonnull CompletableFuture<JCloudsSlave> provisionSlaveAsync(
+            @Nonnull JCloudsCloud cloud, @Nonnull ProvisioningActivity.Id id) {
+        return NodeProvisioning.start(cloud, this, id, pollingPeriodWhileWaitingForProvisioning);
+    }
+
     @Restricted(NoExternalUse.class)
     public @Nonnull Server provisionServer(@CheckForNull ServerScope scope, @CheckForNull ProvisioningActivity.Id id)
             throws Openstack.ActionFailed {
+        SlaveOptions opts = getEffectiveSlaveOptions();
+        return provisionServer(scope, id, opts, getBootSource(opts));
+    }
+
+    private @Nonnull Server provisionServer(
+            @CheckForNull ServerScope scope,
+            @CheckForNull ProvisioningActivity.Id id,
+            @Nonnull SlaveOptions opts,
+            @CheckForNull BootSource bootSource)
+            throws Openstack.ActionFailed {
         final String serverName = getServerName();
-        final SlaveOptions opts = getEffectiveSlaveOptions();
         final ServerCreateBuilder builder = Builders.server();
 
         builder.addMetadataItem(OPENSTACK_TEMPLATE_NAME_KEY, getName());
@@ -295,7 +327,6 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
         builder.name(serverName);
 
         final Openstack openstack = cloud.getOpenstack();
-        final BootSource bootSource = opts.getBootSource();
         if (bootSource == null) {
             LOGGER.warning("No " + BootSource.class.getSimpleName() + " set for "
                     + getClass().getSimpleName() + " with name='" + getName() + "'.");
@@ -310,17 +341,31 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
             builder.flavor(hwid);
         }
 
-        String nid = opts.getNetworkId();
-        if (Util.fixEmpty(nid) != null) {
-            List<String> networks = selectNetworkIds(openstack, nid);
-            LOGGER.fine("Setting networks to " + networks);
-            builder.networks(networks);
+        ResourceSpec networkSpec = opts.getNetworkSpec();
+        List<String> poolPorts = null;
+        if (networkSpec != null) {
+            List<String> networks = selectNetworkIds(openstack, networkSpec);
+            // Ports left from the configuration before are not to be used until replaced
+            if (opts.getPortPoolSize() > 0 && getPortPoolConfig(opts).equals(portPoolVerified)) {
+                portPoolFull = false;
+                poolPorts = PortPool.claim(openstack, getPortPoolOwner(), networks);
+            }
+            if (poolPorts != null) {
+                LOGGER.fine("Setting ports to " + poolPorts);
+                for (String port : poolPorts) {
+                    builder.addNetworkPort(port);
+                }
+            } else {
+                LOGGER.fine("Setting networks to " + networks);
+                builder.networks(networks);
+            }
         }
 
-        String securityGroups = opts.getSecurityGroups();
-        if (Util.fixEmpty(securityGroups) != null) {
-            LOGGER.fine("Setting security groups to " + securityGroups);
-            for (String sg : parseSecurityGroups(securityGroups)) {
+        ResourceSpec securityGroupSpec = opts.getSecurityGroupSpec();
+        // Pool ports are created with security groups applied, Nova does not apply them on existing ports
+        if (securityGroupSpec != null && poolPorts == null) {
+            LOGGER.fine("Setting security groups to " + securityGroupSpec);
+            for (String sg : securityGroupSpec.getDeclared()) {
                 builder.addSecurityGroup(sg);
             }
         }
@@ -355,12 +400,30 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
             builder.configDrive(configDrive);
         }
 
-        Server server = openstack.bootAndWaitActive(builder, opts.getStartTimeout());
+        Server server;
+        try {
+            server = openstack.bootAndWaitActive(builder, opts.getStartTimeout());
+        } catch (Throwable ex) {
+            // No node will ever report or be removed for the server
+            ReadinessCallback.forget(serverName);
+            throw ex;
+        } finally {
+            if (poolPorts != null) {
+                PortPool.release(poolPorts);
+            }
+        }
+        if (opts.getPortPoolSize() > 0) {
+            OpenstackExecutor.get().submit(this::replenishPortPool);
+        }
+
         try {
             if (bootSource != null) {
                 bootSource.afterProvisioning(server, openstack);
             }
             LOGGER.info("Provisioned: " + server);
+            if (scope instanceof ServerScope.Build) {
+                RunScopeRegistry.get().register((ServerScope.Build) scope, cloud.name, server.getId());
+            }
             String poolName = opts.getFloatingIpPool();
             if (poolName != null) {
                 LOGGER.fine("Assigning floating IP from " + poolName + " to " + serverName);
@@ -372,10 +435,81 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
         } catch (Throwable ex) {
             // Do not leak the server as we are aborting the provisioning
             AsyncResourceDisposer.get().dispose(new DestroyMachine(cloud.name, server.getId()));
+            ReadinessCallback.forget(serverName);
             throw ex;
         }
     }
 
+    /**
+     * Boot source of the servers, the newest baked image when there is one.
+     */
+    private @CheckForNull BootSource getBootSource(@Nonnull SlaveOptions opts) {
+        BootSource configured = opts.getBootSource();
+        if (!isBakeable(opts)) return configured;
+
+        if (!bakedKnown) { // Provisioning before the images were refreshed since Jenkins started
+            try {
+                pickNewestBakedImage(cloud.getOpenstack().getBakedImages(getBakeOwner()));
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Unable to list images baked for template " + name, ex);
+            }
+        }
+        String baked = bakedImageId;
+        return baked == null ? configured : new BootSource.Image(baked);
+    }
+
+    // Images of servers booted from volumes are not bootable on their own
+    private static boolean isBakeable(@Nonnull SlaveOptions opts) {
+        BootSource bootSource = opts.getBootSource();
+        return opts.getBakeInterval() > 0 && bootSource != null && bootSource.getClass() == BootSource.Image.class;
+    }
+
+    private @Nonnull String getPortPoolOwner() {
+        return PortPool.getOwner(cloud.name, getName());
+    }
+
+    /**
+     * Make sure there are enough free pool ports for every network declared.
+     *
+     * Nothing is looked up while no port was claimed since the pool was found full.
+     */
+    /*package*/ void replenishPortPool() {
+        SlaveOptions opts = getEffectiveSlaveOptions();
+        int portPoolSize = opts.getPortPoolSize();
+        if (portPoolSize <= 0) return;
+
+        ResourceSpec networkSpec = opts.getNetworkSpec();
+        if (networkSpec == null) return; // Nova picks the network, no ports to pre-create
+
+        List<Object> config = getPortPoolConfig(opts);
+        if (portPoolFull && config.equals(portPoolVerified)) return;
+
+        try {
+            Openstack openstack = cloud.getOpenstack();
+            Collection<String> networkIds = openstack.getNetworks(networkSpec.getDeclared()).keySet();
+
+            ResourceSpec securityGroupSpec = opts.getSecurityGroupSpec();
+            List<String> securityGroupIds = securityGroupSpec == null
+                    ? Collections.emptyList()
+                    : openstack.getSecurityGroupIds(securityGroupSpec.getDeclared());
+
+            portPoolFull = true; // Set ahead so claims made in the meantime are not missed
+            if (PortPool.replenish(openstack, getPortPoolOwner(), networkIds, securityGroupIds, portPoolSize)) {
+                portPoolVerified = config;
+            } else {
+                portPoolFull = false;
+            }
+        } catch (RuntimeException ex) {
+            portPoolFull = false;
+            LOGGER.log(Level.WARNING, "Unable to replenish port pool of " + getName(), ex);
+        }
+    }
+
+    private static @Nonnull List<Object> getPortPoolConfig(@Nonnull SlaveOptions opts) {
+        String networks = String.valueOf(opts.getNetworkSpec());
+        return Arrays.asList(networks, String.valueOf(opts.getSecurityGroupSpec()), opts.getPortPoolSize());
+    }
+
     // Try harder to ensure node name is unique
     private String getServerName() {
         CloudStatistics cs = CloudStatistics.get();
@@ -400,13 +534,9 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
 
     @VisibleForTesting
     /*package*/ static @Nonnull List<String> parseSecurityGroups(@Nonnull String securityGroups) {
-        if (securityGroups == null || securityGroups.isEmpty()) throw new IllegalArgumentException();
-
-        List<String> from = TokenGroup.from(securityGroups, ',');
-        if (from.isEmpty() || from.contains("")) {
-            throw new IllegalArgumentException("Security group declaration contains blank '" + securityGroups + "'");
-        }
-        return from;
+        ResourceSpec spec = ResourceSpec.securityGroups(securityGroups);
+        if (spec == null) throw new IllegalArgumentException();
+        return spec.getDeclared();
     }
 
     /**
@@ -416,16 +546,14 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
      */
     @VisibleForTesting
     /*package*/ static @Nonnull List<String> selectNetworkIds(@Nonnull Openstack openstack, @Nonnull String spec) {
-        if (spec == null || spec.isEmpty()) throw new IllegalArgumentException();
-
-        List<List<String>> declared = TokenGroup.from(spec, ',', '|');
+        ResourceSpec networkSpec = ResourceSpec.networks(spec);
+        if (networkSpec == null) throw new IllegalArgumentException();
+        return selectNetworkIds(openstack, networkSpec);
+    }
 
-        List<String> allDeclaredNetworks =
-                declared.stream().flatMap(Collection::stream).collect(Collectors.toList());
-
-        if (declared.isEmpty() || declared.contains(Collections.emptyList()) || allDeclaredNetworks.contains("")) {
-            throw new IllegalArgumentException("Networks declaration contains blank '" + declared + "'");
-        }
+    private static @Nonnull List<String> selectNetworkIds(@Nonnull Openstack openstack, @Nonnull ResourceSpec spec) {
+        List<List<String>> declared = spec.getAlternatives();
+        List<String> allDeclaredNetworks = spec.getDeclared();
 
         Map<String, Network> osNetworksById = openstack.getNetworks(allDeclaredNetworks);
         Map<String, Network> osNetworksByName =
@@ -439,7 +567,7 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
         };
 
         // Do not even consult capacity when there are no alternatives declared
-        if (!spec.contains("|")) {
+        if (!spec.hasAlternatives()) {
             return allDeclaredNetworks.stream().map(RESOLVE_NAMES_TO_IDS).collect(Collectors.toList());
         }
 
@@ -448,10 +576,7 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
             LOGGER.warning("OpenStack network-ip-availability endpoint is inaccessible, unable to balance the load for "
                     + spec);
             // Return first of the alternatives
-            return declared.stream()
-                    .map(l -> l.get(0))
-                    .map(RESOLVE_NAMES_TO_IDS)
-                    .collect(Collectors.toList());
+            return spec.getPreferred().stream().map(RESOLVE_NAMES_TO_IDS).collect(Collectors.toList());
         }
 
         ArrayList<Network> ret = new ArrayList<>(declared.size());
@@ -505,29 +630,295 @@ public class JCloudsSlaveTemplate implements Describable<JCloudsSlaveTemplate>,
         return UserDataConfig.resolve(getEffectiveSlaveOptions().getUserDataId());
     }
 
+    /**
+     * Servers provisioned from this template, parked ones are not included.
+     */
     /*package for testing*/ List<? extends Server> getRunningNodes() {
         List<Server> tmplt = new ArrayList<>();
         for (Server server : cloud.getOpenstack().getRunningNodes()) {
-            if (hasProvisioned(server)) {
+            if (hasProvisioned(server) && !Openstack.isParked(server)) {
                 tmplt.add(server);
             }
         }
         return tmplt;
     }
 
+    /**
+     * Rebuild the server of a used single-use node and add it to Jenkins as a new node.
+     *
+     * Ports, floating IPs and the scheduling of the server are kept so it is ready sooner than a new one. Only agents
+     * launched over SSH are recycled as the user data, identifying the JNLP agent, can not be changed by the rebuild.
+     * The server is rebuilt from the image new servers would boot from, the baked one when there is any.
+     *
+     * @return New node, or null if the node can not be recycled and is to be deleted.
+     */
+    /*package*/ @CheckForNull
+    JCloudsSlave recycle(@Nonnull JCloudsSlave node) {
+        SlaveOptions opts = getEffectiveSlaveOptions();
+        if (!opts.getRecycle() || !(node.getLauncherFactory() instanceof LauncherFactory.SSH)) return null;
+
+        BootSource bootSource = getBootSource(opts);
+        // Servers booted from volumes can not be rebuilt from an image
+        if (bootSource == null || bootSource.getClass() != BootSource.Image.class) return null;
+
+        String serverName = getServerName();
+        ProvisioningActivity.Id id = new ProvisioningActivity.Id(cloud.name, name);
+
+        CloudStatistics.ProvisioningListener provisioningListener = CloudStatistics.ProvisioningListener.get();
+        provisioningListener.onStarted(id);
+        try {
+            LOGGER.info("Recycling server of " + node.getNodeName() + " as " + serverName);
+            Openstack openstack = cloud.getOpenstack();
+            String imageId = ((BootSource.Image) bootSource).getImageId(openstack);
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put(ServerScope.METADATA_KEY, new ServerScope.Node(serverName, id).getValue());
+            metadata.put(BootSource.Image.OPENSTACK_BOOTSOURCE_IMAGE_ID_KEY, imageId);
+            Server server = openstack.rebuildServer(node.getServerId(), imageId, serverName, metadata);
+            JCloudsSlave recycled = new JCloudsSlave(id, server, labelString, opts);
+            provisioningListener.onComplete(id, recycled);
+            Jenkins.get().addNode(recycled);
+            return recycled;
+        } catch (Throwable ex) {
+            provisioningListener.onFailure(id, ex);
+            LOGGER.log(Level.WARNING, "Unable to recycle " + node.getNodeName() + ", deleting it", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Is it time to bake a new image, given the images baked so far are known from {@link #refreshBakedImages()}.
+     */
+    /*package*/ boolean isBakeDue() {
+        SlaveOptions opts = getEffectiveSlaveOptions();
+        if (!isBakeable(opts)) return false;
+
+        return System.currentTimeMillis() - bakedAt > TimeUnit.HOURS.toMillis(opts.getBakeInterval());
+    }
+
+    /**
+     * Pick the newest image baked for the template and delete the ones beyond the retained count.
+     */
+    /*package*/ void refreshBakedImages() {
+        Openstack openstack = cloud.getOpenstack();
+        List<Image> images = openstack.getBakedImages(getBakeOwner());
+        pickNewestBakedImage(images);
+
+        int bakeRetain = getEffectiveSlaveOptions().getBakeRetain();
+        // Servers booted from the deleted images keep running
+        for (int i = 0; i < images.size() - 1 - bakeRetain; i++) {
+            String imageId = images.get(i).getId();
+            LOGGER.info("Deleting image " + imageId + " baked for template " + name + " in cloud " + cloud.name);
+            try {
+                openstack.destroyImage(imageId);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Unable to delete baked image " + imageId, ex);
+            }
+        }
+    }
+
+    private void pickNewestBakedImage(@Nonnull List<Image> images) {
+        if (images.isEmpty()) {
+            bakedImageId = null;
+            bakedAt = 0;
+        } else {
+            Image newest = images.get(images.size() - 1);
+            Date created = newest.getCreatedAt();
+            bakedAt = created == null ? System.currentTimeMillis() : created.getTime();
+            bakedImageId = newest.getId();
+        }
+        bakedKnown = true;
+    }
+
+    /**
+     * Boot a server from the configured boot source and user data, snapshot it once it reports ready and use the image
+     * for servers provisioned afterwards.
+     *
+     * The server is considered ready when the user data calls {@link ReadinessCallback} through
+     * <code>AGENT_READY_URL</code>, or when cloud-init reports it has finished in the console log. Servers that do
+     * neither are never baked. The waits are scheduled rather than occupying a thread.
+     *
+     * @return Completed once the image is baked and the server deleted.
+     */
+    /*package*/ @Nonnull
+    CompletableFuture<Void> bake() throws Openstack.ActionFailed {
+        SlaveOptions opts = getEffectiveSlaveOptions();
+        BootSource bootSource = opts.getBootSource();
+        if (!isBakeable(opts)) return CompletableFuture.completedFuture(null);
+
+        int timeout = opts.getStartTimeout();
+        Openstack openstack = cloud.getOpenstack();
+        // Boot, readiness and image each wait up to the timeout. Scoped with a margin so the cleanup does not delete
+        // the server mid-snapshot, it is deleted once the bake completes and is left to the cleanup only when Jenkins
+        // stops in the meantime.
+        ServerScope scope = new ServerScope.Time(timeout * 6L, TimeUnit.MILLISECONDS);
+        LOGGER.info("Baking image for template " + name + " in cloud " + cloud.name);
+        Server server = provisionServer(scope, null, opts, bootSource);
+
+        CompletableFuture<Long> report = ReadinessCallback.getReport(server.getName());
+        return poll(
+                        () -> report.isDone()
+                                || isBakeReady(openstack.getServerConsoleOutput(server.getId(), BAKE_CONSOLE_LINES)),
+                        timeout,
+                        "Server " + server.getName() + " did not report ready within timeout (" + timeout + " ms)")
+                .thenApplyAsync(v -> openstack.bakeImage(server.getId(), getBakeOwner()), OpenstackExecutor.get())
+                .thenCompose(imageId -> poll(
+                                () -> {
+                                    Image image = openstack.getImage(imageId);
+                                    return image != null && image.getStatus() == Image.ImageStatus.ACTIVE;
+                                },
+                                timeout,
+                                "Image " + imageId + " did not get active within timeout (" + timeout + " ms)")
+                        .whenComplete((v, ex) -> {
+                            if (ex == null) {
+                                LOGGER.info("Baked image " + imageId + " for template " + name + " in cloud "
+                                        + cloud.name);
+                                return;
+                            }
+                            try {
+                                openstack.destroyImage(imageId);
+                            } catch (RuntimeException e) {
+                                ex.addSuppressed(e);
+                            }
+                        }))
+                .whenComplete((v, ex) -> {
+                    ReadinessCallback.forget(server.getName());
+                    try {
+                        openstack.destroyServer(server);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.WARNING, "Unable to delete server " + server.getName() + " baked", e);
+                        AsyncResourceDisposer.get().dispose(new DestroyMachine(cloud.name, server.getId()));
+                    }
+                })
+                .thenRun(this::refreshBakedImages);
+    }
+
+    /**
+     * Complete once the condition holds, checking it on {@link OpenstackExecutor} rescheduled by the shared timer.
+     */
+    private static @Nonnull CompletableFuture<Void> poll(
+            @Nonnull Callable<Boolean> condition, long timeout, @Nonnull String timeoutMessage) {
+        long deadline = System.currentTimeMillis() + timeout;
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Runnable check = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (condition.call()) {
+                        done.complete(null);
+                    } else if (System.currentTimeMillis() > deadline) {
+                        done.completeExceptionally(new Openstack.ActionFailed(timeoutMessage));
+                    } else {
+                        Timer.get()
+                                .schedule(
+                                        () -> OpenstackExecutor.get().execute(this),
+                                        pollingPeriodWhileWaitingForProvisioning,
+                                        TimeUnit.MILLISECONDS);
+                    }
+                } catch (Throwable ex) {
+                    done.completeExceptionally(ex);
+                }
+            }
+        };
+        OpenstackExecutor.get().execute(check);
+        return done;
+    }
+
+    /*package*/ static boolean isBakeReady(@CheckForNull String consoleOutput) {
+        if (consoleOutput == null) return false;
+
+        for (String line : consoleOutput.split("\\r?\\n")) {
+            if (line.contains("Cloud-init v.") && line.contains(" finished at ")) return true;
+        }
+        return false;
+    }
+
+    private @Nonnull String getBakeOwner() {
+        return cloud.name + ":" + name;
+    }
+
+    /**
+     * Park the server of an idle computer instead of deleting it, provided the template permits it.
+     *
+     * The node is kept in Jenkins offline so it can be brought back by {@link #unpark()} faster than a new server would
+     * boot. The server is parked asynchronously as this is called holding the queue lock.
+     *
+     * @return true if the computer was parked, or is to be retired should parking fail.
+     */
+    /*package*/ boolean park(@Nonnull JCloudsComputer computer) {
+        JCloudsSlave node = computer.getNode();
+        SlaveOptions opts = getEffectiveSlaveOptions();
+        int parkLimit = opts.getParkLimit();
+        if (parkLimit <= 0 || node == null) return false;
+
+        FutureTask<Void> parking = new FutureTask<>(() -> parkServer(computer, node, opts.getParkSuspend()), null);
+        synchronized (this) {
+            int parked = 0;
+            for (JCloudsComputer c : JCloudsComputer.getAll(cloud.name, name)) {
+                if (c.isParked()) parked++;
+            }
+            if (parked >= parkLimit) return false;
+
+            // Offline before the server goes down so no more tasks are assigned
+            computer.setParked(node, parking);
+        }
+        OpenstackExecutor.get().execute(parking);
+        return true;
+    }
+
+    private void parkServer(@Nonnull JCloudsComputer computer, @Nonnull JCloudsSlave node, boolean suspend) {
+        try {
+            Jenkins.get().updateNode(node); // Persist the parked state
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to persist parked " + computer.getName(), ex);
+        }
+
+        try {
+            cloud.getOpenstack().parkServer(node.getServerId(), suspend);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Unable to park " + computer.getName() + ", deleting it", ex);
+            computer.setPendingDelete(true);
+        }
+    }
+
+    /**
+     * Bring back a node parked by {@link #park(JCloudsComputer)}.
+     *
+     * @return true if there was a node to unpark. The server is brought back as the computer connects.
+     */
+    /*package*/ boolean unpark() {
+        for (JCloudsComputer computer : JCloudsComputer.getAll(cloud.name, name)) {
+            if (computer.isParked() && !isParkExpired(computer) && computer.unpark()) {
+                LOGGER.info("Unparking " + computer.getName() + " of template " + name);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parked computer is to be deleted when parked for too long or when parking is no longer permitted.
+     */
+    /*package*/ boolean isParkExpired(@Nonnull JCloudsComputer computer) {
+        SlaveOptions opts = getEffectiveSlaveOptions();
+        if (opts.getParkLimit() <= 0) return true;
+        int parkMaxAge = opts.getParkMaxAge();
+        if (parkMaxAge <= 0) return false;
+
+        JCloudsSlave node = computer.getNode();
+        if (node == null || node.getParkedTime() == 0) return false;
+        return System.currentTimeMillis() - node.getParkedTime() > TimeUnit.MINUTES.toMillis(parkMaxAge);
+    }
+
     /**
      * Return the number of active nodes provisioned using this template.
      */
     /*package*/ int getAvailableNodesTotal() {
         int totalServers = 0;
 
-        for (JCloudsComputer computer : JCloudsComputer.getAll()) {
-            ProvisioningActivity.Id cid = computer.getId();
-            // Not this template
-            if (!name.equals(cid.getTemplateName()) || !cloud.name.equals(cid.getCloudName())) continue;
-
+        for (JCloudsComputer computer : JCloudsComputer.getAll(cloud.name, name)) {
             // Not active
-            if (!computer.isIdle() || computer.isPendingDelete() || computer.isUserOffline()) continue;
+            if (!computer.isIdle() || computer.isPendingDelete() || computer.isUserOffline() || computer.isParked())
+                continue;
 
             totalServers++;
         }
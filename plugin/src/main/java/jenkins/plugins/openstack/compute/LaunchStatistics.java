@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Measurements of agent launches of a template, aggregated from the {@link Launch}es of its nodes.
+ *
+ * Kept in memory only, starting over when Jenkins restarts. Exposed by the remote API of the cloud.
+ */
+@Restricted(NoExternalUse.class)
+@ThreadSafe
+@ExportedBean
+public final class LaunchStatistics {
+
+    // Statistics by cloud and template name
+    private static final Map<String, LaunchStatistics> STATISTICS = new ConcurrentHashMap<>();
+    // Number of distinct failure causes to count, further ones are dropped
+    private static final int MAX_CAUSES = 20;
+
+    private long launches;
+    private long succeeded;
+    private long attempts;
+    private int maxAttempts;
+    private long timeToSuccess;
+    private long maxTimeToSuccess;
+    private final @Nonnull Map<String, Integer> failureCauses = new LinkedHashMap<>();
+
+    /*package*/ static @Nonnull LaunchStatistics get(@Nonnull String cloudName, @Nonnull String templateName) {
+        return STATISTICS.computeIfAbsent(cloudName + ":" + templateName, k -> new LaunchStatistics());
+    }
+
+    /*package*/ synchronized void record(@Nonnull Launch launch) {
+        launches++;
+        attempts += launch.attempts;
+        maxAttempts = Math.max(maxAttempts, launch.attempts);
+        if (launch.timeToSuccess >= 0) {
+            succeeded++;
+            timeToSuccess += launch.timeToSuccess;
+            maxTimeToSuccess = Math.max(maxTimeToSuccess, launch.timeToSuccess);
+        }
+        for (String cause : launch.getFailureCauses()) {
+            if (failureCauses.size() < MAX_CAUSES || failureCauses.containsKey(cause)) {
+                failureCauses.merge(cause, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * @return Number of launches completed, successfully or not.
+     */
+    @Exported
+    public synchronized long getLaunches() {
+        return launches;
+    }
+
+    @Exported
+    public synchronized long getSucceeded() {
+        return succeeded;
+    }
+
+    @Exported
+    public synchronized long getFailed() {
+        return launches - succeeded;
+    }
+
+    /**
+     * @return Number of times the launcher was run across all the launches.
+     */
+    @Exported
+    public synchronized long getAttempts() {
+        return attempts;
+    }
+
+    @Exported
+    public synchronized int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return Mean time from the server coming up to the agent getting online in millis, 0 if none succeeded.
+     */
+    @Exported
+    public synchronized long getMeanTimeToSuccess() {
+        return succeeded == 0 ? 0 : timeToSuccess / succeeded;
+    }
+
+    /**
+     * @return Longest time from the server coming up to the agent getting online in millis.
+     */
+    @Exported
+    public synchronized long getMaxTimeToSuccess() {
+        return maxTimeToSuccess;
+    }
+
+    /**
+     * @return Number of failed attempts by their cause.
+     */
+    @Exported
+    public synchronized @Nonnull Map<String, Integer> getFailureCauses() {
+        return new LinkedHashMap<>(failureCauses);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return launches + " launches/" + succeeded + " succeeded/" + attempts + " attempts/"
+                + getMeanTimeToSuccess() + "ms mean time to success/" + maxTimeToSuccess + "ms max time to success";
+    }
+
+    /**
+     * Attempts to launch a single node, recorded by a single thread.
+     */
+    public static final class Launch {
+        private final long started;
+        private volatile int attempts;
+        private volatile long timeToSuccess = -1;
+        private final @Nonnull List<String> failureCauses = Collections.synchronizedList(new ArrayList<>());
+
+        /**
+         * @param started Time the server started to come up.
+         */
+        /*package*/ Launch(long started) {
+            this.started = started;
+        }
+
+        /*package*/ void attempt() {
+            attempts++;
+        }
+
+        /*package*/ void failed(@Nonnull String cause) {
+            failureCauses.add(cause);
+        }
+
+        /*package*/ void succeeded() {
+            timeToSuccess = System.currentTimeMillis() - started;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * @return Time from the server coming up to the agent getting online in millis, -1 if it did not.
+         */
+        public long getTimeToSuccess() {
+            return timeToSuccess;
+        }
+
+        /**
+         * @return Causes of the failed attempts, in order.
+         */
+        public @Nonnull List<String> getFailureCauses() {
+            synchronized (failureCauses) {
+                return new ArrayList<>(failureCauses);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return attempts + " attempts, " + (timeToSuccess < 0 ? "not online" : "online in " + timeToSuccess + "ms")
+                    + (failureCauses.isEmpty() ? "" : ", failures: " + getFailureCauses());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hudson.slaves.EnvironmentVariablesNodeProperty;
+import hudson.slaves.NodeProperty;
+import hudson.tools.ToolLocationNodeProperty;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+
+/**
+ * Copies of template node properties for the nodes provisioned from the template.
+ *
+ * Copying through XStream serializes and parses every property for every node. Instead, a prototype is computed once
+ * per template property: properties known to be built from immutable parts are constructed from those directly, others
+ * are parsed from their XML form serialized only once.
+ */
+/*package*/ final class NodePropertyPrototypes {
+
+    // Weak identity keys as template properties are replaced by new instances whenever the template is reconfigured
+    private static final Cache<NodeProperty<?>, Supplier<NodeProperty<?>>> PROTOTYPES =
+            Caffeine.newBuilder().weakKeys().build();
+
+    private NodePropertyPrototypes() {}
+
+    /**
+     * Fresh copy of template node property.
+     */
+    /*package*/ static @Nonnull NodeProperty<?> copy(@Nonnull NodeProperty<?> original) {
+        return PROTOTYPES.get(original, NodePropertyPrototypes::prototype).get();
+    }
+
+    private static @Nonnull Supplier<NodeProperty<?>> prototype(@Nonnull NodeProperty<?> original) {
+        // Exact types only, subclasses can have state of their own
+        if (original.getClass() == EnvironmentVariablesNodeProperty.class) {
+            List<EnvironmentVariablesNodeProperty.Entry> entries = new ArrayList<>();
+            ((EnvironmentVariablesNodeProperty) original)
+                    .getEnvVars()
+                    .forEach((key, value) -> entries.add(new EnvironmentVariablesNodeProperty.Entry(key, value)));
+            return () -> new EnvironmentVariablesNodeProperty(entries);
+        }
+        if (original.getClass() == ToolLocationNodeProperty.class) {
+            List<ToolLocationNodeProperty.ToolLocation> locations =
+                    new ArrayList<>(((ToolLocationNodeProperty) original).getLocations());
+            return () -> new ToolLocationNodeProperty(locations);
+        }
+
+        String xml = Jenkins.XSTREAM.toXML(original);
+        return () -> (NodeProperty<?>) Jenkins.XSTREAM.fromXML(xml);
+    }
+}
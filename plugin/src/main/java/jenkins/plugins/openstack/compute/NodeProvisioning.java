@@ -0,0 +1,297 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import jenkins.plugins.openstack.compute.internal.DestroyMachine;
+import jenkins.plugins.openstack.compute.internal.OpenstackExecutor;
+import jenkins.util.Timer;
+import org.jenkinsci.plugins.cloudstats.ProvisioningActivity;
+import org.jenkinsci.plugins.resourcedisposer.AsyncResourceDisposer;
+import org.openstack4j.model.compute.Server;
+
+/**
+ * Provisioning of a single node that does not hold a thread while the node is getting ready.
+ *
+ * The provisioning goes through {@link State}s. The server is booted on the {@link OpenstackExecutor}, as the
+ * OpenStack client only offers a blocking wait for the server to get active. The node is then checked on {@link Timer}
+ * threads whenever its launcher factory signals it might be ready, or the polling period elapses, until it is ready or
+ * the start timeout elapses. Server state reported on timeout is queried on the {@link OpenstackExecutor}.
+ *
+ * Cancelling the resulting future stops the provisioning and discards the node or the server booted for it.
+ */
+/*package*/ final class NodeProvisioning {
+    private static final Logger LOGGER = Logger.getLogger(NodeProvisioning.class.getName());
+
+    /*package*/ enum State {
+        BOOTING,
+        CONNECTING,
+        READY,
+        FAILED
+    }
+
+    private final @Nonnull JCloudsCloud cloud;
+    private final @Nonnull JCloudsSlaveTemplate template;
+    private final @Nonnull ProvisioningActivity.Id id;
+    private final long pollingPeriod;
+    private final @Nonnull CompletableFuture<JCloudsSlave> result = new CompletableFuture<>();
+
+    private volatile @Nonnull State state = State.BOOTING;
+    // Set once the server is booted
+    private volatile @CheckForNull JCloudsSlave node;
+    private final @Nonnull AtomicBoolean discarded = new AtomicBoolean();
+    // Completed to check the node before the polling period elapses, replaced by every check
+    private volatile @CheckForNull CompletableFuture<Void> wake;
+    // Launcher factory signalled progress since the last check started
+    private final @Nonnull AtomicBoolean signalled = new AtomicBoolean();
+
+    private NodeProvisioning(
+            @Nonnull JCloudsCloud cloud,
+            @Nonnull JCloudsSlaveTemplate template,
+            @Nonnull ProvisioningActivity.Id id,
+            long pollingPeriod) {
+        this.cloud = cloud;
+        this.template = template;
+        this.id = id;
+        this.pollingPeriod = pollingPeriod;
+    }
+
+    /**
+     * Start provisioning a node.
+     *
+     * @return Future completed with the node ready to be added to Jenkins and launched.
+     */
+    /*package*/ static @Nonnull CompletableFuture<JCloudsSlave> start(
+            @Nonnull JCloudsCloud cloud,
+            @Nonnull JCloudsSlaveTemplate template,
+            @Nonnull ProvisioningActivity.Id id,
+            long pollingPeriod) {
+        NodeProvisioning provisioning = new NodeProvisioning(cloud, template, id, pollingPeriod);
+        CompletableFuture.supplyAsync(() -> template.provisionServer(null, id), OpenstackExecutor.get())
+                .whenComplete(provisioning::booted);
+        provisioning.result.whenComplete((node, ex) -> {
+            if (provisioning.result.isCancelled()) {
+                provisioning.cancelled();
+            }
+        });
+        return provisioning.result;
+    }
+
+    /*package*/ @Nonnull
+    State getState() {
+        return state;
+    }
+
+    private void booted(@CheckForNull Server server, @CheckForNull Throwable ex) {
+        if (ex != null) {
+            // Propagate as is, the same way the blocking provisioning did
+            fail(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            return;
+        }
+        assert server != null;
+
+        if (result.isCancelled()) {
+            AsyncResourceDisposer.get().dispose(new DestroyMachine(cloud.name, server.getId()));
+            return;
+        }
+
+        JCloudsSlave node;
+        try {
+            node = new JCloudsSlave(id, server, template.getLabels(), template.getEffectiveSlaveOptions());
+        } catch (Throwable e) {
+            AsyncResourceDisposer.get().dispose(new DestroyMachine(cloud.name, server.getId()));
+            fail(new JCloudsCloud.ProvisioningFailedException(e.getMessage(), e));
+            return;
+        }
+        this.node = node;
+        if (result.isCancelled()) { // Cancelled while the node was being created
+            discard(node);
+            return;
+        }
+        state = State.CONNECTING;
+        subscribe(node);
+        check();
+    }
+
+    /**
+     * Check again as soon as the launcher factory signals the node might be ready.
+     *
+     * Subscribed once when connecting, and again only after the factory signalled, as it can have more to signal.
+     */
+    private void subscribe(@Nonnull JCloudsSlave node) {
+        CompletableFuture<?> whenReady = node.getLauncherFactory().whenReady(node);
+        if (whenReady.isDone()) {
+            wake();
+            return;
+        }
+        whenReady.whenComplete((r, e) -> {
+            wake();
+            if (!result.isDone()) {
+                subscribe(node);
+            }
+        });
+    }
+
+    private void wake() {
+        signalled.set(true);
+        CompletableFuture<Void> wake = this.wake;
+        if (wake != null) {
+            wake.complete(null);
+        }
+    }
+
+    private void check() {
+        JCloudsSlave node = this.node;
+        assert node != null;
+        if (result.isDone()) return; // Cancelled, stop polling
+        signalled.set(false);
+
+        try {
+            String cause = cloud.slaveIsWaitingFor(node);
+            if (cause == null) {
+                ready(node);
+                return;
+            }
+
+            if (node.isLaunchTimedOut()) {
+                // Querying the server blocks
+                CompletableFuture.supplyAsync(() -> timedOut(node, cause), OpenstackExecutor.get())
+                        .whenComplete((timedOut, ex) -> {
+                            if (ex == null) {
+                                fail(timedOut);
+                                return;
+                            }
+                            Throwable failure = ex instanceof CompletionException && ex.getCause() != null
+                                    ? ex.getCause()
+                                    : ex;
+                            fail(new JCloudsCloud.ProvisioningFailedException(failure.getMessage(), failure));
+                        });
+                return;
+            }
+
+            // Check again as soon as the factory signals progress, or once the polling period elapses
+            CompletableFuture<Void> wake = new CompletableFuture<>();
+            this.wake = wake;
+            if (signalled.get()) { // Signalled while checking
+                wake.complete(null);
+            }
+            ScheduledFuture<?> poll =
+                    Timer.get().schedule(() -> wake.complete(null), pollingPeriod, TimeUnit.MILLISECONDS);
+            wake.thenRunAsync(
+                    () -> {
+                        poll.cancel(false);
+                        check();
+                    },
+                    Timer.get());
+        } catch (Throwable ex) {
+            fail(
+                    ex instanceof JCloudsCloud.ProvisioningFailedException
+                            ? ex
+                            : new JCloudsCloud.ProvisioningFailedException(ex.getMessage(), ex));
+        }
+    }
+
+    private void ready(@Nonnull JCloudsSlave node) {
+        CompletableFuture<Long> report = node.getReadinessReport();
+        if (report.isDone() && !report.isCompletedExceptionally()) {
+            LOGGER.info("Server " + node.getNodeName() + " reported ready " + (report.join() - node.getCreatedTime())
+                    + " ms after it was provisioned");
+        }
+        state = State.READY;
+        if (!result.complete(node)) {
+            // Cancelled meanwhile, nobody is going to add the node to Jenkins
+            discard(node);
+        }
+    }
+
+    private void cancelled() {
+        state = State.FAILED;
+        JCloudsSlave node = this.node;
+        if (node != null) {
+            discard(node);
+        }
+    }
+
+    /**
+     * Terminate the node not to be used. Its server is destroyed only once, by whichever path gets here first.
+     */
+    private void discard(@Nonnull JCloudsSlave node) {
+        if (!discarded.compareAndSet(false, true)) return;
+
+        // JNLP nodes are added to Jenkins for the agent to connect
+        Jenkins jenkins = Jenkins.get();
+        if (jenkins.getNode(node.getNodeName()) == node) {
+            try {
+                jenkins.removeNode(node);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Unable to remove node " + node.getNodeName(), ex);
+            }
+        }
+        // No need to call AbstractCloudSlave#terminate() as this was never added to Jenkins as ready
+        node._terminate(TaskListener.NULL);
+    }
+
+    private @Nonnull JCloudsCloud.ProvisioningFailedException timedOut(@Nonnull JCloudsSlave node, String cause) {
+        String timeoutMessage = String.format(
+                "Failed to connect agent %s within timeout (%d ms): %s",
+                node.getNodeName(), node.getSlaveOptions().getStartTimeout(), cause);
+        Error errorQuerying = null;
+        try {
+            Server freshServer = cloud.getOpenstack().getServerById(node.getServerId());
+            timeoutMessage += System.lineSeparator() + "Server state: " + freshServer;
+            // TODO attach instance log (or tail of) to cloud statistics
+        } catch (NoSuchElementException ex) {
+            timeoutMessage += System.lineSeparator() + "Server does no longer exist: " + node.getServerId();
+        } catch (Error ex) {
+            errorQuerying = ex;
+        }
+        LOGGER.warning(timeoutMessage);
+        JCloudsCloud.ProvisioningFailedException ex = new JCloudsCloud.ProvisioningFailedException(timeoutMessage);
+        if (errorQuerying != null) {
+            ex.addSuppressed(errorQuerying);
+        }
+        return ex;
+    }
+
+    private void fail(@Nonnull Throwable ex) {
+        state = State.FAILED;
+        JCloudsSlave node = this.node;
+        if (node != null) {
+            discard(node);
+        }
+        result.completeExceptionally(ex);
+    }
+}
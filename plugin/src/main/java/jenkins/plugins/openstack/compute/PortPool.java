@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.plugins.openstack.compute.internal.Openstack;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.openstack4j.model.network.Port;
+
+/**
+ * Neutron ports pre-created for servers of a template.
+ *
+ * Servers are booted with existing ports instead of networks so Nova does not need to wait for Neutron to create and
+ * wire them. Pool is identified by port name so it survives restarts, the cleanup removes ports no longer needed.
+ */
+@Restricted(NoExternalUse.class)
+/*package*/ final class PortPool {
+    private static final Logger LOGGER = Logger.getLogger(PortPool.class.getName());
+
+    // Ports handed to servers being booted, Neutron does not report them bound until Nova plugs them
+    private static final Set<String> CLAIMED = ConcurrentHashMap.newKeySet();
+    // Pools being replenished at the moment
+    private static final Set<String> REPLENISHING = ConcurrentHashMap.newKeySet();
+
+    private PortPool() {}
+
+    /*package*/ static @Nonnull String getOwner(@Nonnull String cloudName, @Nonnull String templateName) {
+        return cloudName + ":" + templateName;
+    }
+
+    /**
+     * Cloud name of the pool owner, template names can not contain colon.
+     */
+    /*package*/ static @Nonnull String getCloudName(@Nonnull String owner) {
+        int separator = owner.lastIndexOf(':');
+        return separator < 0 ? owner : owner.substring(0, separator);
+    }
+
+    /**
+     * Take one free port of the pool for every network.
+     *
+     * @return Port IDs in the order of networks or null in case the pool can not serve all of them.
+     */
+    /*package*/ static @CheckForNull List<String> claim(
+            @Nonnull Openstack openstack, @Nonnull String owner, @Nonnull List<String> networkIds) {
+        Map<String, List<Port>> freeByNetwork = new HashMap<>();
+        for (Port port : openstack.getFreePoolPorts(owner)) {
+            freeByNetwork
+                    .computeIfAbsent(port.getNetworkId(), k -> new ArrayList<>())
+                    .add(port);
+        }
+
+        List<String> claimed = new ArrayList<>(networkIds.size());
+        for (String networkId : networkIds) {
+            String portId = null;
+            for (Port port : freeByNetwork.getOrDefault(networkId, new ArrayList<>())) {
+                if (!claimed.contains(port.getId()) && CLAIMED.add(port.getId())) {
+                    portId = port.getId();
+                    break;
+                }
+            }
+
+            if (portId == null) {
+                release(claimed);
+                LOGGER.fine("Port pool " + owner + " exhausted for network " + networkId);
+                return null;
+            }
+            claimed.add(portId);
+        }
+        return claimed;
+    }
+
+    /**
+     * Return ports once the boot has completed, either bound to the server or free again.
+     */
+    /*package*/ static void release(@Nonnull Collection<String> portIds) {
+        CLAIMED.removeAll(portIds);
+    }
+
+    /**
+     * Create ports so there is the desired number of free ones in every network. Free ports of networks no longer
+     * declared, or with different security groups, are deleted.
+     *
+     * @return true if the pool was found or made full.
+     */
+    /*package*/ static boolean replenish(
+            @Nonnull Openstack openstack,
+            @Nonnull String owner,
+            @Nonnull Collection<String> networkIds,
+            @Nonnull List<String> securityGroupIds,
+            int size) {
+        if (!REPLENISHING.add(owner)) return false; // Already in progress
+
+        try {
+            Set<String> securityGroups = new HashSet<>(securityGroupIds);
+            Map<String, Integer> free = new HashMap<>();
+            for (Port port : openstack.getFreePoolPorts(owner)) {
+                if (CLAIMED.contains(port.getId())) continue;
+
+                if (networkIds.contains(port.getNetworkId()) && securityGroups.equals(getSecurityGroups(port))) {
+                    free.merge(port.getNetworkId(), 1, Integer::sum);
+                } else {
+                    destroyStale(openstack, owner, port);
+                }
+            }
+
+            for (String networkId : networkIds) {
+                int missing = size - free.getOrDefault(networkId, 0);
+                if (missing > 0) {
+                    openstack.createPoolPorts(owner, networkId, securityGroupIds, missing);
+                }
+            }
+            return true;
+        } catch (Openstack.ActionFailed ex) {
+            LOGGER.log(Level.WARNING, "Unable to replenish port pool " + owner, ex);
+            return false;
+        } finally {
+            REPLENISHING.remove(owner);
+        }
+    }
+
+    private static @Nonnull Set<String> getSecurityGroups(@Nonnull Port port) {
+        List<String> securityGroups = port.getSecurityGroups();
+        return securityGroups == null ? Collections.emptySet() : new HashSet<>(securityGroups);
+    }
+
+    private static void destroyStale(@Nonnull Openstack openstack, @Nonnull String owner, @Nonnull Port port) {
+        // Claimed for the time of the deletion so no server is booted with it
+        if (!CLAIMED.add(port.getId())) return;
+        try {
+            LOGGER.info("Deleting pool port " + port.getId() + " of " + owner + " no longer matching the template");
+            openstack.destroyPort(port.getId());
+        } catch (Openstack.ActionFailed ex) {
+            LOGGER.log(Level.WARNING, "Unable to delete pool port " + port.getId(), ex);
+        } finally {
+            CLAIMED.remove(port.getId());
+        }
+    }
+
+    /**
+     * Delete free ports exceeding the pool size, including pools that no longer exist.
+     *
+     * @param cloudName Cloud to reclaim ports for.
+     * @param sizes Pool sizes by owner.
+     * @param recorder Statistics of the cleanup phase, the rest is left to the next cycle once over budget.
+     */
+    /*package*/ static void reclaim(
+            @Nonnull Openstack openstack,
+            @Nonnull String cloudName,
+            @Nonnull Map<String, Integer> sizes,
+            @Nonnull CleanupStatistics.Recorder recorder) {
+        for (Map.Entry<String, List<Port>> pool : openstack.getFreePoolPorts().entrySet()) {
+            String owner = pool.getKey();
+            if (!cloudName.equals(getCloudName(owner)) || REPLENISHING.contains(owner)) continue;
+
+            recorder.examined(pool.getValue().size());
+            int size = sizes.getOrDefault(owner, 0);
+            Map<String, Integer> kept = new HashMap<>();
+            for (Port port : pool.getValue()) {
+                if (CLAIMED.contains(port.getId())) continue;
+                if (kept.merge(port.getNetworkId(), 1, Integer::sum) <= size) continue;
+                if (recorder.isOverBudget()) return;
+
+                LOGGER.info("Deleting excess pool port " + port.getId() + " of " + owner);
+                try {
+                    openstack.destroyPort(port.getId());
+                    recorder.acted();
+                } catch (Openstack.ActionFailed ex) {
+                    LOGGER.log(Level.WARNING, "Unable to delete pool port " + port.getId(), ex);
+                }
+            }
+        }
+    }
+}
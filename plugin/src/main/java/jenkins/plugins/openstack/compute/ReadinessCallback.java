@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.UnprotectedRootAction;
+import hudson.security.csrf.CrumbExclusion;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import jenkins.security.HMACConfidentialKey;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+/**
+ * Endpoint servers call from their user data to report they are ready.
+ *
+ * The URL is exposed to user data as a variable. It carries a token derived from the server name and a nonce of its
+ * provisioning so a server can only report itself, and only until the report is forgotten. Provisioning waits for the
+ * report alongside the launcher specific checks.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class ReadinessCallback implements UnprotectedRootAction {
+    private static final Logger LOGGER = Logger.getLogger(ReadinessCallback.class.getName());
+
+    /*package*/ static final String URL_NAME = "openstack-ready";
+
+    private static final HMACConfidentialKey TOKEN = new HMACConfidentialKey(ReadinessCallback.class, "token");
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Time of the report by server name
+    private static final Map<String, CompletableFuture<Long>> REPORTS = new ConcurrentHashMap<>();
+    // Nonce of the provisioning by server name, the token is valid while it is here
+    private static final Map<String, String> NONCES = new ConcurrentHashMap<>();
+
+    @Override
+    public @CheckForNull String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public @CheckForNull String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public @Nonnull String getUrlName() {
+        return URL_NAME;
+    }
+
+    /**
+     * URL for the server to report it is ready.
+     */
+    /*package*/ static @Nonnull String getUrl(@Nonnull String rootUrl, @Nonnull String serverName) {
+        String nonce = NONCES.computeIfAbsent(serverName, k -> {
+            byte[] bytes = new byte[16];
+            RANDOM.nextBytes(bytes);
+            return Util.toHexString(bytes);
+        });
+        return rootUrl + URL_NAME + "/?server=" + Util.rawEncode(serverName) + "&nonce=" + nonce + "&token="
+                + TOKEN.mac(serverName + ":" + nonce);
+    }
+
+    /**
+     * Future completed with the time the server reported it is ready.
+     */
+    /*package*/ static @Nonnull CompletableFuture<Long> getReport(@Nonnull String serverName) {
+        return REPORTS.computeIfAbsent(serverName, k -> new CompletableFuture<>());
+    }
+
+    /**
+     * Forget the report of a server that is gone.
+     */
+    /*package*/ static void forget(@Nonnull String serverName) {
+        NONCES.remove(serverName);
+        CompletableFuture<Long> report = REPORTS.remove(serverName);
+        if (report != null) {
+            report.cancel(false);
+        }
+    }
+
+    @RequirePOST
+    public HttpResponse doIndex(
+            @QueryParameter String server, @QueryParameter String nonce, @QueryParameter String token) {
+        if (server == null || nonce == null || token == null) return HttpResponses.forbidden();
+        // Tokens of servers forgotten, or provisioned before, are no longer valid
+        if (!nonce.equals(NONCES.get(server)) || !TOKEN.checkMac(server + ":" + nonce, token)) {
+            return HttpResponses.forbidden();
+        }
+
+        if (getReport(server).complete(System.currentTimeMillis())) {
+            LOGGER.fine("Server " + server + " reported ready");
+        }
+        return HttpResponses.ok();
+    }
+
+    /**
+     * Servers report without crumb.
+     */
+    @Extension
+    public static final class CrumbExclusionImpl extends CrumbExclusion {
+        @Override
+        public boolean process(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+                throws IOException, ServletException {
+            String pathInfo = req.getPathInfo();
+            if (pathInfo == null || !pathInfo.startsWith("/" + URL_NAME + "/")) return false;
+
+            chain.doFilter(req, resp);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import jenkins.plugins.openstack.compute.internal.TokenGroup;
+
+/**
+ * Declaration of OpenStack resources to use, tokenized once when {@link SlaveOptions} are created.
+ *
+ * The spec is a list of resources, each given as alternatives to choose from based on their capacity. Malformed
+ * declarations are reported once the spec is used, not to fail reading the configuration.
+ */
+@Immutable
+/*package*/ final class ResourceSpec {
+    private final @Nonnull String spec;
+    private final @CheckForNull String error;
+    private final @Nonnull List<List<String>> alternatives;
+    private final @Nonnull List<String> declared;
+    private final @Nonnull List<String> preferred;
+    private final boolean hasAlternatives;
+
+    private ResourceSpec(@Nonnull String spec, @Nonnull List<List<String>> tokens, @CheckForNull String error) {
+        this.spec = spec;
+        this.error = error;
+        List<List<String>> alternatives = new ArrayList<>(tokens.size());
+        for (List<String> alternative : tokens) {
+            alternatives.add(Collections.unmodifiableList(new ArrayList<>(alternative)));
+        }
+        this.alternatives = Collections.unmodifiableList(alternatives);
+        this.declared = Collections.unmodifiableList(
+                tokens.stream().flatMap(Collection::stream).collect(Collectors.toList()));
+        this.preferred = Collections.unmodifiableList(tokens.stream()
+                .filter(l -> !l.isEmpty())
+                .map(l -> l.get(0))
+                .collect(Collectors.toList()));
+        this.hasAlternatives = spec.contains("|");
+    }
+
+    /**
+     * Compile comma separated networks, each of them possibly given as pipe separated alternatives.
+     */
+    /*package*/ static @CheckForNull ResourceSpec networks(@CheckForNull String spec) {
+        if (spec == null || spec.isEmpty()) return null;
+
+        List<List<String>> tokens = TokenGroup.from(spec, ',', '|');
+        boolean blank = tokens.isEmpty() || tokens.stream().anyMatch(l -> l.isEmpty() || l.contains(""));
+        return new ResourceSpec(spec, tokens, blank ? "Networks declaration contains blank '" + tokens + "'" : null);
+    }
+
+    /**
+     * Compile comma separated security groups.
+     */
+    /*package*/ static @CheckForNull ResourceSpec securityGroups(@CheckForNull String spec) {
+        if (spec == null || spec.isEmpty()) return null;
+
+        List<String> tokens = TokenGroup.from(spec, ',');
+        boolean blank = tokens.isEmpty() || tokens.contains("");
+        return new ResourceSpec(
+                spec,
+                tokens.stream().map(Collections::singletonList).collect(Collectors.toList()),
+                blank ? "Security group declaration contains blank '" + spec + "'" : null);
+    }
+
+    /**
+     * Resources to use, each as a non-empty list of alternatives.
+     */
+    /*package*/ @Nonnull
+    List<List<String>> getAlternatives() {
+        verify();
+        return alternatives;
+    }
+
+    /**
+     * All resources declared, including all the alternatives.
+     */
+    /*package*/ @Nonnull
+    List<String> getDeclared() {
+        verify();
+        return declared;
+    }
+
+    /**
+     * Resources to use when capacity is not known, the first of the alternatives.
+     */
+    /*package*/ @Nonnull
+    List<String> getPreferred() {
+        verify();
+        return preferred;
+    }
+
+    /*package*/ boolean hasAlternatives() {
+        return hasAlternatives;
+    }
+
+    private void verify() {
+        if (error != null) throw new IllegalArgumentException(error);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import jenkins.plugins.openstack.compute.internal.DestroyMachine;
+import org.jenkinsci.plugins.resourcedisposer.AsyncResourceDisposer;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Track servers scoped to runs so they are disposed as soon as the run is finalized.
+ *
+ * Evaluating {@link ServerScope.Build} requires loading the run, which can hit the disk for large build histories.
+ * Runs reported finalized are considered out of scope without any lookup, runs found in scope are polled again no
+ * sooner than {@link #POLLING_PERIOD}. Polling remains the safety net for servers this instance has not provisioned
+ * or events it missed while not running. Runs it finds out of scope stop being tracked here as well.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class RunScopeRegistry extends RunListener<Run<?, ?>> {
+    private static final Logger LOGGER = Logger.getLogger(RunScopeRegistry.class.getName());
+
+    /*package*/ static final long POLLING_PERIOD = TimeUnit.MINUTES.toMillis(10);
+
+    // Server IDs to cloud names by scope value
+    private final @Nonnull Map<String, Map<String, String>> servers = new ConcurrentHashMap<>();
+    // Scope values of runs finalized recently
+    private final @Nonnull Cache<String, Boolean> finalized =
+            Caffeine.newBuilder().expireAfterWrite(1, TimeUnit.HOURS).build();
+    // Scope values of runs found in scope by polling recently
+    private final @Nonnull Cache<String, Boolean> polled =
+            Caffeine.newBuilder().expireAfterWrite(POLLING_PERIOD, TimeUnit.MILLISECONDS).build();
+
+    public static @Nonnull RunScopeRegistry get() {
+        return ExtensionList.lookup(RunListener.class).get(RunScopeRegistry.class);
+    }
+
+    /*package*/ void register(@Nonnull ServerScope.Build scope, @Nonnull String cloudName, @Nonnull String serverId) {
+        servers.computeIfAbsent(scope.getValue(), k -> new ConcurrentHashMap<>())
+                .put(serverId, cloudName);
+    }
+
+    /**
+     * Stop tracking the server disposed by other means.
+     */
+    /*package*/ void unregister(@Nonnull ServerScope.Build scope, @Nonnull String serverId) {
+        servers.computeIfPresent(scope.getValue(), (k, ids) -> {
+            ids.remove(serverId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /*package*/ boolean isFinalized(@Nonnull ServerScope.Build scope) {
+        return finalized.getIfPresent(scope.getValue()) != null;
+    }
+
+    /**
+     * Whether the run should be looked up to determine the scope.
+     */
+    /*package*/ boolean shouldPoll(@Nonnull ServerScope.Build scope) {
+        return polled.getIfPresent(scope.getValue()) == null;
+    }
+
+    /*package*/ void polledInScope(@Nonnull ServerScope.Build scope) {
+        polled.put(scope.getValue(), Boolean.TRUE);
+    }
+
+    /**
+     * The run was found out of scope by polling, its event was missed. The servers are disposed by the polling cleanup.
+     */
+    /*package*/ void polledOutOfScope(@Nonnull ServerScope.Build scope) {
+        finalized.put(scope.getValue(), Boolean.TRUE);
+        servers.remove(scope.getValue());
+    }
+
+    @Override
+    public void onInitialize(Run<?, ?> run) {
+        // Build numbers are reused when job is recreated
+        String scope = new ServerScope.Build(run).getValue();
+        finalized.invalidate(scope);
+        polled.invalidate(scope);
+    }
+
+    @Override
+    public void onFinalized(Run<?, ?> run) {
+        outOfScope(run);
+    }
+
+    @Override
+    public void onDeleted(Run<?, ?> run) {
+        outOfScope(run);
+    }
+
+    private void outOfScope(@Nonnull Run<?, ?> run) {
+        String scope = new ServerScope.Build(run).getValue();
+        finalized.put(scope, Boolean.TRUE);
+        polled.invalidate(scope);
+
+        Map<String, String> scoped = servers.remove(scope);
+        if (scoped == null) return;
+
+        AsyncResourceDisposer disposer = AsyncResourceDisposer.get();
+        scoped.forEach((serverId, cloudName) -> {
+            LOGGER.info("Server " + serverId + " run out of its scope " + scope + ". Terminating");
+            disposer.dispose(new DestroyMachine(cloudName, serverId));
+        });
+    }
+}
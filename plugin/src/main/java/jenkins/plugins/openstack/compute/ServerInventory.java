@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.openstack4j.model.compute.Server;
+
+/**
+ * Servers of a cloud listed in bulk, to serve the details of its nodes.
+ *
+ * Rendering many computers used to look up every server on its own. Servers are now listed at once no more often than
+ * {@link #MAX_AGE}, or when a node asks for a server provisioned after the last listing. The cleanup feeds the
+ * listings it does anyway. Servers missing in the listing are looked up one by one, as the listing leaves out the ones
+ * not running.
+ */
+@ThreadSafe
+/*package*/ final class ServerInventory {
+    private static final Logger LOGGER = Logger.getLogger(ServerInventory.class.getName());
+
+    /*package*/ static final long MAX_AGE = TimeUnit.MINUTES.toMillis(5);
+
+    // Clouds not asked for for a while are forgotten, so are the removed ones
+    private static final @Nonnull Cache<String, ServerInventory> INVENTORIES =
+            Caffeine.newBuilder().expireAfterAccess(1, TimeUnit.HOURS).build();
+
+    private final @Nonnull String cloudName;
+    // Servers by ID, replaced as a whole
+    private volatile @Nonnull Map<String, Server> servers = Collections.emptyMap();
+    // Time the servers were listed, 0 if never
+    private volatile long listed;
+
+    private ServerInventory(@Nonnull String cloudName) {
+        this.cloudName = cloudName;
+    }
+
+    /*package*/ static @Nonnull ServerInventory get(@Nonnull String cloudName) {
+        return INVENTORIES.get(cloudName, ServerInventory::new);
+    }
+
+    /**
+     * Get the server as listed in bulk.
+     *
+     * @param serverId Server to get.
+     * @param created Time the server was known to exist, so listings before that are not used.
+     * @return null if the server does not exist or could not be looked up.
+     */
+    /*package*/ @CheckForNull
+    Server getServer(@Nonnull String serverId, long created) {
+        if (isStale(created)) {
+            refresh(created);
+        }
+        Server server = servers.get(serverId);
+        // Listing omits servers not running (SHUTOFF, ERROR, etc.), those are the most interesting to see
+        return server != null ? server : lookup(serverId);
+    }
+
+    private @CheckForNull Server lookup(@Nonnull String serverId) {
+        try {
+            return JCloudsCloud.getByName(cloudName).getOpenstack().getServerById(serverId);
+        } catch (NoSuchElementException ex) {
+            // just return empty
+        } catch (Exception ex) {
+            LOGGER.log(
+                    Level.WARNING,
+                    "Unable to read details of server '" + serverId + "' from cloud '" + cloudName + "'.",
+                    ex);
+        }
+        return null;
+    }
+
+    private boolean isStale(long created) {
+        long listed = this.listed;
+        return listed < created || System.currentTimeMillis() - listed > MAX_AGE;
+    }
+
+    private synchronized void refresh(long created) {
+        // Listed by other thread in the meantime
+        if (!isStale(created)) return;
+
+        long now = System.currentTimeMillis();
+        try {
+            update(JCloudsCloud.getByName(cloudName).getOpenstack().getRunningNodes(), now);
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, "Unable to list servers of cloud '" + cloudName + "'.", ex);
+            // Not to retry for every node asking, servers listed before are kept
+            listed = now;
+        }
+    }
+
+    /**
+     * Replace the inventory with servers listed at given time.
+     */
+    /*package*/ void update(@Nonnull List<? extends Server> running, long listedAt) {
+        Map<String, Server> servers = new HashMap<>(running.size() * 2);
+        for (Server server : running) {
+            servers.put(server.getId(), server);
+        }
+        synchronized (this) {
+            if (listedAt < listed) return; // Newer listing already in
+
+            this.servers = Collections.unmodifiableMap(servers);
+            this.listed = listedAt;
+        }
+    }
+}
@@ -27,7 +27,11 @@ import hudson.model.Job;
 import hudson.model.Run;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import javax.annotation.CheckForNull;
@@ -140,7 +144,61 @@ public abstract class ServerScope {
     /**
      * Determine whether the server is out of scope or not.
      */
-    public abstract boolean isOutOfScope(@Nonnull Server server);
+    public boolean isOutOfScope(@Nonnull Server server) {
+        return isOutOfScope(server, Context.create());
+    }
+
+    /**
+     * Determine whether the server is out of scope or not.
+     *
+     * @param context State of Jenkins to evaluate against, shared by servers evaluated together.
+     */
+    public abstract boolean isOutOfScope(@Nonnull Server server, @Nonnull Context context);
+
+    /**
+     * Snapshot of Jenkins state scopes are evaluated against.
+     *
+     * Created once per cleanup cycle so evaluation of every server is a constant-time lookup rather than a scan of
+     * all provisioning activities.
+     */
+    public static final class Context {
+        private final @Nonnull Map<Integer, ProvisioningActivity.Phase> phasesByFingerprint;
+        private final @Nonnull Map<String, hudson.model.Node> nodesByName;
+
+        private Context(
+                @Nonnull Map<Integer, ProvisioningActivity.Phase> phasesByFingerprint,
+                @Nonnull Map<String, hudson.model.Node> nodesByName) {
+            this.phasesByFingerprint = phasesByFingerprint;
+            this.nodesByName = nodesByName;
+        }
+
+        public static @Nonnull Context create() {
+            Collection<ProvisioningActivity> activities = CloudStatistics.get().getActivities();
+            Map<Integer, ProvisioningActivity.Phase> phases = new HashMap<>(activities.size() * 2);
+            for (ProvisioningActivity pa : activities) {
+                // The first activity wins the same way the activities used to be traversed
+                phases.putIfAbsent(pa.getId().getFingerprint(), pa.getCurrentPhase());
+            }
+
+            List<hudson.model.Node> nodes = Jenkins.get().getNodes();
+            Map<String, hudson.model.Node> nodesByName = new HashMap<>(nodes.size() * 2);
+            for (hudson.model.Node node : nodes) {
+                nodesByName.put(node.getNodeName(), node);
+            }
+
+            return new Context(phases, nodesByName);
+        }
+
+        /*package*/ @CheckForNull
+        ProvisioningActivity.Phase getPhase(int fingerprint) {
+            return phasesByFingerprint.get(fingerprint);
+        }
+
+        /*package*/ @CheckForNull
+        hudson.model.Node getNode(@Nonnull String name) {
+            return nodesByName.get(name);
+        }
+    }
 
     /**
      * Server is scoped to Jenkins node of the name equal to the specifier.
@@ -181,26 +239,25 @@ public abstract class ServerScope {
         }
 
         @Override
-        public boolean isOutOfScope(@Nonnull Server server) {
-            if (computerExists()) return false;
+        public boolean isOutOfScope(@Nonnull Server server, @Nonnull Context context) {
+            if (computerExists(context)) return false;
 
             if (cloudStatsFingerprint != null) {
                 // The node may be provisioned or deleted at the moment - do not interfere
-                for (ProvisioningActivity pa : CloudStatistics.get().getActivities()) {
-                    // Note the node name might not have been assigned yet so using fingerprint instead
-                    if (pa.getId().getFingerprint() == cloudStatsFingerprint) {
-                        switch (pa.getCurrentPhase()) {
-                            case PROVISIONING:
-                                return false; // Node not yet created
-                            case LAUNCHING:
-                            case OPERATING:
-                                LOGGER.warning("Node does not exist for " + pa.getCurrentPhase() + " " + specifier);
-                                return false;
-                            case COMPLETED:
-                                return true;
-                        }
-                        assert false : "Unreachable";
+                // Note the node name might not have been assigned yet so using fingerprint instead
+                ProvisioningActivity.Phase phase = context.getPhase(cloudStatsFingerprint);
+                if (phase != null) {
+                    switch (phase) {
+                        case PROVISIONING:
+                            return false; // Node not yet created
+                        case LAUNCHING:
+                        case OPERATING:
+                            LOGGER.warning("Node does not exist for " + phase + " " + specifier);
+                            return false;
+                        case COMPLETED:
+                            return true;
                     }
+                    assert false : "Unreachable";
                 }
             }
 
@@ -217,8 +274,8 @@ public abstract class ServerScope {
             return true;
         }
 
-        private boolean computerExists() {
-            hudson.model.Node node = Jenkins.get().getNode(getName());
+        private boolean computerExists(@Nonnull Context context) {
+            hudson.model.Node node = context.getNode(getName());
             if (!(node instanceof JCloudsSlave)) return false; // Node does not exists or is not our node
 
             if (cloudStatsFingerprint == null)
@@ -257,7 +314,22 @@ public abstract class ServerScope {
         }
 
         @Override
-        public boolean isOutOfScope(@Nonnull Server server) {
+        public boolean isOutOfScope(@Nonnull Server server, @Nonnull Context context) {
+            RunScopeRegistry registry = RunScopeRegistry.get();
+            if (registry.isFinalized(this)) return true;
+            // Loading the run is expensive, recheck those in scope only once in a while
+            if (!registry.shouldPoll(this)) return false;
+
+            if (isRunOver()) {
+                registry.polledOutOfScope(this);
+                return true;
+            }
+
+            registry.polledInScope(this);
+            return false;
+        }
+
+        private boolean isRunOver() {
             Job job = Jenkins.get().getItemByFullName(project, Job.class);
             if (job == null)
                 return true; // Presuming it was deleted/renamed, either way the build do not need the server anymore
@@ -303,7 +375,7 @@ public abstract class ServerScope {
         }
 
         @Override
-        public boolean isOutOfScope(@Nonnull Server server) {
+        public boolean isOutOfScope(@Nonnull Server server, @Nonnull Context context) {
             return System.currentTimeMillis() > aliveUntil;
         }
 
@@ -335,7 +407,7 @@ public abstract class ServerScope {
         }
 
         @Override
-        public boolean isOutOfScope(@Nonnull Server server) {
+        public boolean isOutOfScope(@Nonnull Server server, @Nonnull Context context) {
             return false;
         }
     }
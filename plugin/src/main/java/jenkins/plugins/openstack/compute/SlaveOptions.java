@@ -52,8 +52,7 @@ import org.kohsuke.stapler.DataBoundConstructor;
  */
 public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
     private static final long serialVersionUID = -1L;
-    private static final SlaveOptions EMPTY = new SlaveOptions(
-            null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+    private static final SlaveOptions EMPTY = builder().build();
 
     // Provisioning attributes
     private /*final*/ @CheckForNull BootSource bootSource;
@@ -90,12 +89,36 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
     private final Integer retentionTime;
 
     private final @CheckForNull Boolean configDrive;
+    // Number of ports kept pre-created in every network
+    private final @CheckForNull Integer portPoolSize;
+    // Number of idle servers to park instead of deleting them, 0 to delete them
+    private final @CheckForNull Integer parkLimit;
+    // Minutes a server can stay parked, 0 for no limit
+    private final @CheckForNull Integer parkMaxAge;
+    // Suspend the servers to park rather than shelving them
+    private final @CheckForNull Boolean parkSuspend;
+    // Rebuild servers of single-use nodes in place rather than deleting them
+    private final @CheckForNull Boolean recycle;
+    // Hours between image bakes, 0 not to bake images
+    private final @CheckForNull Integer bakeInterval;
+    // Number of images baked before the newest one to keep
+    private final @CheckForNull Integer bakeRetain;
+    // Millis to wait before the first launch retry
+    private final @CheckForNull Integer launchRetryDelay;
+    // Most millis to wait between launch retries
+    private final @CheckForNull Integer launchMaxRetryDelay;
+    // Persist the nodes as a reference to the template rather than in full
+    private final @CheckForNull Boolean compactPersistence;
 
     // Replaced by BootSource
     @Deprecated
     @SuppressWarnings("DeprecatedIsStillUsed")
     private transient @CheckForNull String imageId;
 
+    // Compiled from their declarations when created or deserialized
+    private transient @CheckForNull ResourceSpec networkSpec;
+    private transient @CheckForNull ResourceSpec securityGroupSpec;
+
     public @CheckForNull String getFsRoot() {
         return fsRoot;
     }
@@ -168,6 +191,46 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
         return configDrive;
     }
 
+    public @CheckForNull Integer getPortPoolSize() {
+        return portPoolSize;
+    }
+
+    public @CheckForNull Integer getParkLimit() {
+        return parkLimit;
+    }
+
+    public @CheckForNull Integer getParkMaxAge() {
+        return parkMaxAge;
+    }
+
+    public @CheckForNull Boolean getParkSuspend() {
+        return parkSuspend;
+    }
+
+    public @CheckForNull Boolean getRecycle() {
+        return recycle;
+    }
+
+    public @CheckForNull Integer getBakeInterval() {
+        return bakeInterval;
+    }
+
+    public @CheckForNull Integer getBakeRetain() {
+        return bakeRetain;
+    }
+
+    public @CheckForNull Integer getLaunchRetryDelay() {
+        return launchRetryDelay;
+    }
+
+    public @CheckForNull Integer getLaunchMaxRetryDelay() {
+        return launchMaxRetryDelay;
+    }
+
+    public @CheckForNull Boolean getCompactPersistence() {
+        return compactPersistence;
+    }
+
     public SlaveOptions(Builder b) {
         this(
                 b.bootSource,
@@ -187,7 +250,17 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
                 b.launcherFactory,
                 b.nodeProperties,
                 b.retentionTime,
-                b.configDrive);
+                b.configDrive,
+                b.portPoolSize,
+                b.parkLimit,
+                b.parkMaxAge,
+                b.parkSuspend,
+                b.recycle,
+                b.bakeInterval,
+                b.bakeRetain,
+                b.launchRetryDelay,
+                b.launchMaxRetryDelay,
+                b.compactPersistence);
     }
 
     @DataBoundConstructor
@@ -210,7 +283,17 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
             LauncherFactory launcherFactory,
             @CheckForNull List<? extends NodeProperty<?>> nodeProperties,
             Integer retentionTime,
-            @CheckForNull Boolean configDrive) {
+            @CheckForNull Boolean configDrive,
+            @CheckForNull Integer portPoolSize,
+            @CheckForNull Integer parkLimit,
+            @CheckForNull Integer parkMaxAge,
+            @CheckForNull Boolean parkSuspend,
+            @CheckForNull Boolean recycle,
+            @CheckForNull Integer bakeInterval,
+            @CheckForNull Integer bakeRetain,
+            @CheckForNull Integer launchRetryDelay,
+            @CheckForNull Integer launchMaxRetryDelay,
+            @CheckForNull Boolean compactPersistence) {
         this.bootSource = bootSource;
         this.hardwareId = Util.fixEmpty(hardwareId);
         this.networkId = Util.fixEmpty(networkId);
@@ -233,6 +316,17 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
         }
         this.retentionTime = retentionTime;
         this.configDrive = configDrive;
+        this.portPoolSize = portPoolSize;
+        this.parkLimit = parkLimit;
+        this.parkMaxAge = parkMaxAge;
+        this.parkSuspend = parkSuspend;
+        this.recycle = recycle;
+        this.bakeInterval = bakeInterval;
+        this.bakeRetain = bakeRetain;
+        this.launchRetryDelay = launchRetryDelay;
+        this.launchMaxRetryDelay = launchMaxRetryDelay;
+        this.compactPersistence = compactPersistence;
+        compileSpecs();
     }
 
     private Object readResolve() {
@@ -240,9 +334,25 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
             bootSource = new BootSource.Image(imageId);
         }
         imageId = null;
+        compileSpecs();
         return this;
     }
 
+    private void compileSpecs() {
+        networkSpec = ResourceSpec.networks(networkId);
+        securityGroupSpec = ResourceSpec.securityGroups(securityGroups);
+    }
+
+    /*package*/ @CheckForNull
+    ResourceSpec getNetworkSpec() {
+        return networkSpec;
+    }
+
+    /*package*/ @CheckForNull
+    ResourceSpec getSecurityGroupSpec() {
+        return securityGroupSpec;
+    }
+
     /**
      * Derive SlaveOptions taking this instance as baseline and overriding with argument.
      */
@@ -266,6 +376,16 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
                 .nodeProperties(_override(this.nodeProperties, o.nodeProperties))
                 .retentionTime(_override(this.retentionTime, o.retentionTime))
                 .configDrive(_override(this.configDrive, o.configDrive))
+                .portPoolSize(_override(this.portPoolSize, o.portPoolSize))
+                .parkLimit(_override(this.parkLimit, o.parkLimit))
+                .parkMaxAge(_override(this.parkMaxAge, o.parkMaxAge))
+                .parkSuspend(_override(this.parkSuspend, o.parkSuspend))
+                .recycle(_override(this.recycle, o.recycle))
+                .bakeInterval(_override(this.bakeInterval, o.bakeInterval))
+                .bakeRetain(_override(this.bakeRetain, o.bakeRetain))
+                .launchRetryDelay(_override(this.launchRetryDelay, o.launchRetryDelay))
+                .launchMaxRetryDelay(_override(this.launchMaxRetryDelay, o.launchMaxRetryDelay))
+                .compactPersistence(_override(this.compactPersistence, o.compactPersistence))
                 .build();
     }
 
@@ -296,6 +416,16 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
                 .nodeProperties(_erase(this.nodeProperties, defaults.nodeProperties))
                 .retentionTime(_erase(this.retentionTime, defaults.retentionTime))
                 .configDrive(_erase(this.configDrive, defaults.configDrive))
+                .portPoolSize(_erase(this.portPoolSize, defaults.portPoolSize))
+                .parkLimit(_erase(this.parkLimit, defaults.parkLimit))
+                .parkMaxAge(_erase(this.parkMaxAge, defaults.parkMaxAge))
+                .parkSuspend(_erase(this.parkSuspend, defaults.parkSuspend))
+                .recycle(_erase(this.recycle, defaults.recycle))
+                .bakeInterval(_erase(this.bakeInterval, defaults.bakeInterval))
+                .bakeRetain(_erase(this.bakeRetain, defaults.bakeRetain))
+                .launchRetryDelay(_erase(this.launchRetryDelay, defaults.launchRetryDelay))
+                .launchMaxRetryDelay(_erase(this.launchMaxRetryDelay, defaults.launchMaxRetryDelay))
+                .compactPersistence(_erase(this.compactPersistence, defaults.compactPersistence))
                 .build();
     }
 
@@ -327,6 +457,16 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
                 .append("nodeProperties", nodeProperties)
                 .append("retentionTime", retentionTime)
                 .append("configDrive", configDrive)
+                .append("portPoolSize", portPoolSize)
+                .append("parkLimit", parkLimit)
+                .append("parkMaxAge", parkMaxAge)
+                .append("parkSuspend", parkSuspend)
+                .append("recycle", recycle)
+                .append("bakeInterval", bakeInterval)
+                .append("bakeRetain", bakeRetain)
+                .append("launchRetryDelay", launchRetryDelay)
+                .append("launchMaxRetryDelay", launchMaxRetryDelay)
+                .append("compactPersistence", compactPersistence)
                 .toString();
     }
 
@@ -354,7 +494,17 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
         if (!Objects.equals(launcherFactory, that.launcherFactory)) return false;
         if (!Objects.equals(nodeProperties, that.nodeProperties)) return false;
         if (!Objects.equals(retentionTime, that.retentionTime)) return false;
-        return Objects.equals(configDrive, that.configDrive);
+        if (!Objects.equals(configDrive, that.configDrive)) return false;
+        if (!Objects.equals(portPoolSize, that.portPoolSize)) return false;
+        if (!Objects.equals(parkLimit, that.parkLimit)) return false;
+        if (!Objects.equals(parkMaxAge, that.parkMaxAge)) return false;
+        if (!Objects.equals(parkSuspend, that.parkSuspend)) return false;
+        if (!Objects.equals(recycle, that.recycle)) return false;
+        if (!Objects.equals(bakeInterval, that.bakeInterval)) return false;
+        if (!Objects.equals(bakeRetain, that.bakeRetain)) return false;
+        if (!Objects.equals(launchRetryDelay, that.launchRetryDelay)) return false;
+        if (!Objects.equals(launchMaxRetryDelay, that.launchMaxRetryDelay)) return false;
+        return Objects.equals(compactPersistence, that.compactPersistence);
     }
 
     @Override
@@ -377,6 +527,16 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
         result = 31 * result + (nodeProperties != null ? nodeProperties.hashCode() : 0);
         result = 31 * result + (retentionTime != null ? retentionTime.hashCode() : 0);
         result = 31 * result + (configDrive != null ? configDrive.hashCode() : 0);
+        result = 31 * result + (portPoolSize != null ? portPoolSize.hashCode() : 0);
+        result = 31 * result + (parkLimit != null ? parkLimit.hashCode() : 0);
+        result = 31 * result + (parkMaxAge != null ? parkMaxAge.hashCode() : 0);
+        result = 31 * result + (parkSuspend != null ? parkSuspend.hashCode() : 0);
+        result = 31 * result + (recycle != null ? recycle.hashCode() : 0);
+        result = 31 * result + (bakeInterval != null ? bakeInterval.hashCode() : 0);
+        result = 31 * result + (bakeRetain != null ? bakeRetain.hashCode() : 0);
+        result = 31 * result + (launchRetryDelay != null ? launchRetryDelay.hashCode() : 0);
+        result = 31 * result + (launchMaxRetryDelay != null ? launchMaxRetryDelay.hashCode() : 0);
+        result = 31 * result + (compactPersistence != null ? compactPersistence.hashCode() : 0);
         return result;
     }
 
@@ -402,7 +562,17 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
                 .launcherFactory(launcherFactory)
                 .nodeProperties(nodeProperties)
                 .retentionTime(retentionTime)
-                .configDrive(configDrive);
+                .configDrive(configDrive)
+                .portPoolSize(portPoolSize)
+                .parkLimit(parkLimit)
+                .parkMaxAge(parkMaxAge)
+                .parkSuspend(parkSuspend)
+                .recycle(recycle)
+                .bakeInterval(bakeInterval)
+                .bakeRetain(bakeRetain)
+                .launchRetryDelay(launchRetryDelay)
+                .launchMaxRetryDelay(launchMaxRetryDelay)
+                .compactPersistence(compactPersistence);
     }
 
     public static @Nonnull SlaveOptions empty() {
@@ -437,6 +607,16 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
         private @CheckForNull List<? extends NodeProperty<?>> nodeProperties;
         private @CheckForNull Integer retentionTime;
         private @CheckForNull Boolean configDrive;
+        private @CheckForNull Integer portPoolSize;
+        private @CheckForNull Integer parkLimit;
+        private @CheckForNull Integer parkMaxAge;
+        private @CheckForNull Boolean parkSuspend;
+        private @CheckForNull Boolean recycle;
+        private @CheckForNull Integer bakeInterval;
+        private @CheckForNull Integer bakeRetain;
+        private @CheckForNull Integer launchRetryDelay;
+        private @CheckForNull Integer launchMaxRetryDelay;
+        private @CheckForNull Boolean compactPersistence;
 
         public Builder() {}
 
@@ -533,6 +713,56 @@ public class SlaveOptions implements Describable<SlaveOptions>, Serializable {
             this.configDrive = configDrive;
             return this;
         }
+
+        public @Nonnull Builder portPoolSize(Integer portPoolSize) {
+            this.portPoolSize = portPoolSize;
+            return this;
+        }
+
+        public @Nonnull Builder parkLimit(Integer parkLimit) {
+            this.parkLimit = parkLimit;
+            return this;
+        }
+
+        public @Nonnull Builder parkMaxAge(Integer parkMaxAge) {
+            this.parkMaxAge = parkMaxAge;
+            return this;
+        }
+
+        public @Nonnull Builder parkSuspend(Boolean parkSuspend) {
+            this.parkSuspend = parkSuspend;
+            return this;
+        }
+
+        public @Nonnull Builder recycle(Boolean recycle) {
+            this.recycle = recycle;
+            return this;
+        }
+
+        public @Nonnull Builder bakeInterval(Integer bakeInterval) {
+            this.bakeInterval = bakeInterval;
+            return this;
+        }
+
+        public @Nonnull Builder bakeRetain(Integer bakeRetain) {
+            this.bakeRetain = bakeRetain;
+            return this;
+        }
+
+        public @Nonnull Builder launchRetryDelay(Integer launchRetryDelay) {
+            this.launchRetryDelay = launchRetryDelay;
+            return this;
+        }
+
+        public @Nonnull Builder launchMaxRetryDelay(Integer launchMaxRetryDelay) {
+            this.launchMaxRetryDelay = launchMaxRetryDelay;
+            return this;
+        }
+
+        public @Nonnull Builder compactPersistence(Boolean compactPersistence) {
+            this.compactPersistence = compactPersistence;
+            return this;
+        }
     }
 
     /**
@@ -155,6 +155,104 @@ public final class SlaveOptionsDescriptor extends OsAuthDescriptor<SlaveOptions>
         return FormValidation.validateNonNegativeInteger(value);
     }
 
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public FormValidation doCheckPortPoolSize(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("portPoolSize") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        if (Util.fixEmpty(value) == null) {
+            String d = getDefault(def, opts().getPortPoolSize());
+            if (d != null) return FormValidation.ok(def(d));
+            return REQUIRED;
+        }
+        return FormValidation.validateNonNegativeInteger(value);
+    }
+
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public FormValidation doCheckParkLimit(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("parkLimit") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        if (Util.fixEmpty(value) == null) {
+            String d = getDefault(def, opts().getParkLimit());
+            if (d != null) return FormValidation.ok(def(d));
+            return REQUIRED;
+        }
+        return FormValidation.validateNonNegativeInteger(value);
+    }
+
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public FormValidation doCheckParkMaxAge(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("parkMaxAge") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        if (Util.fixEmpty(value) == null) {
+            String d = getDefault(def, opts().getParkMaxAge());
+            if (d != null) return FormValidation.ok(def(d));
+            return REQUIRED;
+        }
+        return FormValidation.validateNonNegativeInteger(value);
+    }
+
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public FormValidation doCheckBakeInterval(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("bakeInterval") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        if (Util.fixEmpty(value) == null) {
+            String d = getDefault(def, opts().getBakeInterval());
+            if (d != null) return FormValidation.ok(def(d));
+            return REQUIRED;
+        }
+        return FormValidation.validateNonNegativeInteger(value);
+    }
+
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public FormValidation doCheckBakeRetain(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("bakeRetain") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        if (Util.fixEmpty(value) == null) {
+            String d = getDefault(def, opts().getBakeRetain());
+            if (d != null) return FormValidation.ok(def(d));
+            return REQUIRED;
+        }
+        return FormValidation.validateNonNegativeInteger(value);
+    }
+
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public FormValidation doCheckLaunchRetryDelay(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("launchRetryDelay") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        if (Util.fixEmpty(value) == null) {
+            String d = getDefault(def, opts().getLaunchRetryDelay());
+            if (d != null) return FormValidation.ok(def(d));
+            return REQUIRED;
+        }
+        return FormValidation.validateNonNegativeInteger(value);
+    }
+
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public FormValidation doCheckLaunchMaxRetryDelay(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("launchMaxRetryDelay") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        if (Util.fixEmpty(value) == null) {
+            String d = getDefault(def, opts().getLaunchMaxRetryDelay());
+            if (d != null) return FormValidation.ok(def(d));
+            return REQUIRED;
+        }
+        return FormValidation.validateNonNegativeInteger(value);
+    }
+
     @Restricted(DoNotUse.class)
     @InjectOsAuth
     @RequirePOST
@@ -342,6 +440,45 @@ public final class SlaveOptionsDescriptor extends OsAuthDescriptor<SlaveOptions>
         return m;
     }
 
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public ListBoxModel doFillParkSuspendItems(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("parkSuspend") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        ListBoxModel m = new ListBoxModel();
+        m.add("Inherited / Override later", "");
+        m.add("True", "true");
+        m.add("False", "false");
+        return m;
+    }
+
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public ListBoxModel doFillRecycleItems(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("recycle") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        ListBoxModel m = new ListBoxModel();
+        m.add("Inherited / Override later", "");
+        m.add("True", "true");
+        m.add("False", "false");
+        return m;
+    }
+
+    @Restricted(DoNotUse.class)
+    @RequirePOST
+    public ListBoxModel doFillCompactPersistenceItems(
+            @QueryParameter String value,
+            @RelativePath("../../slaveOptions") @QueryParameter("compactPersistence") String def) {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        ListBoxModel m = new ListBoxModel();
+        m.add("Inherited / Override later", "");
+        m.add("True", "true");
+        m.add("False", "false");
+        return m;
+    }
+
     private FormValidation getUserDataLink(String id, String name) {
         return FormValidation.okWithMarkup(
                 "<a target='_blank' href='" + Jenkins.get().getRootUrl() + "configfiles/editConfig?id="
@@ -66,6 +66,10 @@ import jenkins.slaves.JnlpAgentReceiver;
                         .encodeToString(org.jenkinsci.main.modules.instance_identity.InstanceIdentity.get()
                                 .getPublic()
                                 .getEncoded())));
+        stub(
+                "AGENT_READY_URL",
+                "URL the server can POST to once it is ready, for example <code>curl -fsS -X POST \"${AGENT_READY_URL}\"</code> at the end of the user data. Provisioning then proceeds right away rather than on its next check. The URL authorizes the server to report itself only.",
+                r -> ReadinessCallback.getUrl(r.rootUrl, r.serverName));
         stub("AGENT_JNLP_HOST", "Jenkins agent jnlp host", r -> r.host);
         stub(
                 "AGENT_JNLP_PORT",
@@ -26,6 +26,7 @@ import java.util.Objects;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import net.sf.json.JSONObject;
+import net.sf.json.util.JSONUtils;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.openstack4j.model.compute.Server;
@@ -33,7 +34,8 @@ import org.openstack4j.model.compute.Server;
 /**
  * Scope of FIP for deletion.
  *
- * This uses URL+ServerID, do not need to use instance identity as the ServerID is unique.
+ * This uses URL+ServerID, do not need to use instance identity as the ServerID is unique. The same description marks
+ * boot volumes created for servers so those left behind can be found.
  */
 @Restricted(NoExternalUse.class)
 public class FipScope {
@@ -41,15 +43,27 @@ public class FipScope {
 
     public static @Nonnull String getDescription(
             @Nonnull String url, @Nonnull String identity, @Nonnull Server server) {
-        String description = "{ '" + Openstack.FINGERPRINT_KEY_URL + "': '" + url + "', '"
-                + Openstack.FINGERPRINT_KEY_FINGERPRINT + "': '" + identity
-                + "', 'jenkins-scope': 'server:" + server.getId() + "' }";
+        return getDescription(url, identity, server, null);
+    }
+
+    /**
+     * Get description with a note for humans, dropped should the description grow too long.
+     */
+    public static @Nonnull String getDescription(
+            @Nonnull String url, @Nonnull String identity, @Nonnull Server server, @CheckForNull String note) {
+        String scope = "'" + Openstack.FINGERPRINT_KEY_FINGERPRINT + "': '" + identity + "', 'jenkins-scope': 'server:"
+                + server.getId() + "'";
+        String urlEntry = "'" + Openstack.FINGERPRINT_KEY_URL + "': '" + url + "', ";
+        String noteEntry = note == null ? "" : ", 'jenkins-note': " + JSONUtils.quote(note);
 
+        String description = "{ " + urlEntry + scope + noteEntry + " }";
         if (description.length() < MAX_DESCRIPTION_LENGTH) return description;
 
         // Avoid URL that is used only for human consumption anyway
-        return "{ '" + Openstack.FINGERPRINT_KEY_FINGERPRINT + "': '" + identity + "', 'jenkins-scope': 'server:"
-                + server.getId() + "' }";
+        description = "{ " + scope + noteEntry + " }";
+        if (description.length() < MAX_DESCRIPTION_LENGTH) return description;
+
+        return "{ " + scope + " }";
     }
 
     public static @CheckForNull String getServerId(
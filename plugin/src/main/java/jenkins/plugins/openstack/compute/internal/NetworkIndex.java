@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.openstack4j.model.network.Network;
+
+/**
+ * Networks of a cloud connection indexed by ID and name.
+ *
+ * The index outlives {@link Openstack} instances as those are recreated whenever the session expires, while the set of
+ * networks changes rarely.
+ */
+@Restricted(NoExternalUse.class)
+@Immutable
+public final class NetworkIndex {
+    private final @Nonnull List<? extends Network> networks;
+    // Networks by both ID and name
+    private final @Nonnull Map<String, Network> byNameOrId;
+    private final long fetched;
+
+    /*package*/ NetworkIndex(@Nonnull List<? extends Network> networks, long fetched) {
+        this.networks = Collections.unmodifiableList(new ArrayList<>(networks));
+        this.fetched = fetched;
+
+        Map<String, Network> byNameOrId = new HashMap<>(networks.size() * 4);
+        for (Network n : networks) {
+            // Names are not unique in Neutron and can collide with IDs of other networks. First one wins the same way
+            // the list used to be traversed.
+            String name = n.getName();
+            if (name != null) {
+                byNameOrId.putIfAbsent(name, n);
+            }
+            byNameOrId.putIfAbsent(n.getId(), n);
+        }
+        this.byNameOrId = byNameOrId;
+    }
+
+    public @Nonnull List<? extends Network> getNetworks() {
+        return networks;
+    }
+
+    /**
+     * Resolve the first network listed with the name or ID.
+     */
+    public @CheckForNull Network get(@Nonnull String nameOrId) {
+        return byNameOrId.get(nameOrId);
+    }
+
+    /*package*/ long getFetched() {
+        return fetched;
+    }
+
+    /**
+     * Same index with fetch time updated in case the networks did not change. New index otherwise.
+     */
+    /*package*/ @Nonnull
+    NetworkIndex refresh(@Nonnull List<? extends Network> fresh, long now) {
+        if (fresh.size() != networks.size()) return new NetworkIndex(fresh, now);
+
+        for (int i = 0; i < fresh.size(); i++) {
+            Network f = fresh.get(i);
+            Network n = networks.get(i);
+            if (!Objects.equals(f.getId(), n.getId()) || !Objects.equals(f.getName(), n.getName())) {
+                return new NetworkIndex(fresh, now);
+            }
+        }
+
+        return new NetworkIndex(this, now);
+    }
+
+    private NetworkIndex(@Nonnull NetworkIndex unchanged, long fetched) {
+        this.networks = unchanged.networks;
+        this.byNameOrId = unchanged.byNameOrId;
+        this.fetched = fetched;
+    }
+}
@@ -46,8 +46,10 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.logging.Level;
@@ -73,17 +75,20 @@ import org.openstack4j.api.networking.NetFloatingIPService;
 import org.openstack4j.api.networking.NetworkingService;
 import org.openstack4j.core.transport.Config;
 import org.openstack4j.model.common.ActionResponse;
+import org.openstack4j.model.compute.Action;
 import org.openstack4j.model.compute.Address;
 import org.openstack4j.model.compute.Fault;
 import org.openstack4j.model.compute.Flavor;
 import org.openstack4j.model.compute.Keypair;
 import org.openstack4j.model.compute.Server;
+import org.openstack4j.model.compute.actions.RebuildOptions;
 import org.openstack4j.model.compute.builder.ServerCreateBuilder;
 import org.openstack4j.model.compute.ext.AvailabilityZone;
 import org.openstack4j.model.identity.v2.Access;
 import org.openstack4j.model.identity.v3.Token;
 import org.openstack4j.model.image.v2.Image;
 import org.openstack4j.model.network.*;
+import org.openstack4j.model.network.builder.PortBuilder;
 import org.openstack4j.model.network.ext.NetworkIPAvailability;
 import org.openstack4j.model.network.options.PortListOptions;
 import org.openstack4j.model.storage.block.Volume;
@@ -110,6 +115,12 @@ public class Openstack {
     private static final Logger LOGGER = Logger.getLogger(Openstack.class.getName());
     public static final String FINGERPRINT_KEY_URL = "jenkins-instance";
     public static final String FINGERPRINT_KEY_FINGERPRINT = "jenkins-identity";
+    // Name prefix of ports pre-created to boot servers with, followed by instance fingerprint and pool owner
+    public static final String POOL_PORT_PREFIX = "jenkins-pool:";
+    // Name prefix of ports of destroyed servers, followed by instance fingerprint and server ID
+    public static final String SERVER_PORT_PREFIX = "jenkins-server:";
+    // Name prefix of images baked from templates, followed by instance fingerprint and owner
+    public static final String BAKED_IMAGE_PREFIX = "jenkins-baked:";
 
     private String INSTANCE_FINGERPRINT;
 
@@ -128,8 +139,15 @@ public class Openstack {
     // Store the OS session token so clients can be created from it per all threads using this.
     private final ClientProvider clientProvider;
 
-    private static final @Nonnull Cache<Openstack, List<? extends Network>> networksCache =
-            Caffeine.newBuilder().expireAfterWrite(10, TimeUnit.MINUTES).build();
+    // Keyed by cloud connection so the index survives recreation of this object. Entries of connections no longer
+    // used are evicted eventually.
+    private static final @Nonnull Cache<String, NetworkIndex> networkIndexCache =
+            Caffeine.newBuilder().expireAfterAccess(1, TimeUnit.HOURS).build();
+    // The networks are listed again after this period, index is rebuilt only when they differ.
+    private static final long NETWORK_INDEX_TTL = TimeUnit.MINUTES.toMillis(10);
+
+    // Identification of the cloud connection this was created for
+    private final @Nonnull String connectionFingerprint;
 
     // The time to cache here is questionable as the information can get outdated based on activity out of our reach.
     // Caching this for few seconds will smooth spikes provisioning many VMs at the time, although it might cause some
@@ -157,14 +175,24 @@ public class Openstack {
         OSClient<?> client = builder.withConfig(config).authenticate().useRegion(region);
 
         clientProvider = ClientProvider.get(client, region, config);
+        connectionFingerprint = getCloudConnectionFingerprint(endPointUrl, ignoreSsl, auth, region);
         debug("Openstack client created for \"{0}\", \"{1}\".", auth.toString(), region);
     }
 
     @VisibleForTesting
     public Openstack(@Nonnull final OSClient<?> client) {
+        // Not shared with any other instance
+        this(client, "client:" + UUID.randomUUID());
+    }
+
+    /**
+     * @param connectionFingerprint Instances of the same fingerprint share cached resources, like the network index.
+     */
+    @VisibleForTesting
+    /*package*/ Openstack(@Nonnull final OSClient<?> client, @Nonnull String connectionFingerprint) {
         this.clientProvider = new ClientProvider() {
             @Override
-            public @Nonnull OSClient<?> get() {
+            protected @Nonnull OSClient<?> create() {
                 return client;
             }
 
@@ -173,6 +201,16 @@ public class Openstack {
                 return "";
             }
         };
+        this.connectionFingerprint = connectionFingerprint;
+    }
+
+    /**
+     * Number of OpenStack API requests issued from the current thread so far.
+     *
+     * Meant to measure the cost of an operation by comparing the values before and after it.
+     */
+    public static long getRequestCount() {
+        return ClientProvider.REQUESTS.get()[0];
     }
 
     public static @Nonnull String getFlavorInfo(@Nonnull Flavor f) {
@@ -190,8 +228,24 @@ public class Openstack {
 
     @VisibleForTesting
     public @Nonnull List<? extends Network> _listNetworks() {
-        return Objects.requireNonNull(networksCache.get(
-                this, (os) -> os.clientProvider.get().networking().network().list()));
+        return getNetworkIndex().getNetworks();
+    }
+
+    /**
+     * Get networks of this cloud connection indexed by ID and name.
+     */
+    @VisibleForTesting
+    public @Nonnull NetworkIndex getNetworkIndex() {
+        NetworkIndex index = networkIndexCache.getIfPresent(connectionFingerprint);
+        long now = System.currentTimeMillis();
+        if (index != null && now - index.getFetched() < NETWORK_INDEX_TTL) return index;
+
+        // Listed outside of the cache not to hold its lock during the remote call. Concurrent callers may list the
+        // networks more than once, the last one wins.
+        List<? extends Network> networks = clientProvider.get().networking().network().list();
+        NetworkIndex fresh = index == null ? new NetworkIndex(networks, now) : index.refresh(networks, now);
+        networkIndexCache.put(connectionFingerprint, fresh);
+        return fresh;
     }
 
     /**
@@ -203,22 +257,20 @@ public class Openstack {
     public @Nonnull Map<String, Network> getNetworks(@Nonnull List<String> nameOrIds) {
         if (nameOrIds.isEmpty()) return Collections.emptyMap();
 
-        nameOrIds = new ArrayList<>(nameOrIds); // Not to modify the argument
+        NetworkIndex index = getNetworkIndex();
 
         Map<String, Network> ret = new HashMap<>();
-        List<? extends Network> networks = _listNetworks();
-        for (Network n : networks) {
-            if (nameOrIds.contains(n.getName())) {
-                ret.put(n.getId(), n);
-                nameOrIds.removeAll(Collections.singletonList(n.getName()));
-            } else if (nameOrIds.contains(n.getId())) {
+        List<String> missing = new ArrayList<>();
+        for (String nameOrId : nameOrIds) {
+            Network n = index.get(nameOrId);
+            if (n == null) {
+                missing.add(nameOrId);
+            } else {
                 ret.put(n.getId(), n);
-                nameOrIds.removeAll(Collections.singletonList(n.getId()));
             }
-            if (nameOrIds.isEmpty()) break;
         }
 
-        if (!nameOrIds.isEmpty()) throw new NoSuchElementException("Unable to find networks for: " + nameOrIds);
+        if (!missing.isEmpty()) throw new NoSuchElementException("Unable to find networks for: " + missing);
 
         return ret;
     }
@@ -397,6 +449,165 @@ public class Openstack {
         return freeIps;
     }
 
+    /**
+     * Resolve security group names or IDs to IDs.
+     *
+     * Neutron, unlike Nova, accepts security group IDs only.
+     */
+    public @Nonnull List<String> getSecurityGroupIds(@Nonnull List<String> nameOrIds) {
+        if (nameOrIds.isEmpty()) return Collections.emptyList();
+
+        Map<String, String> idsByName = new HashMap<>();
+        Set<String> ids = new HashSet<>();
+        for (SecurityGroup sg : clientProvider.get().networking().securitygroup().list()) {
+            idsByName.putIfAbsent(sg.getName(), sg.getId());
+            ids.add(sg.getId());
+        }
+
+        List<String> ret = new ArrayList<>(nameOrIds.size());
+        for (String nameOrId : nameOrIds) {
+            String id = idsByName.get(nameOrId);
+            if (id == null && ids.contains(nameOrId)) {
+                id = nameOrId;
+            }
+            if (id == null) throw new NoSuchElementException("Unable to find security group for: " + nameOrId);
+            ret.add(id);
+        }
+        return ret;
+    }
+
+    /**
+     * Create ports for servers to be booted with later.
+     *
+     * All the ports are created in a single bulk request. They are named after the pool owner so they can be found
+     * even after restart.
+     *
+     * @param owner Identification of the pool.
+     * @param networkId Network to create ports in.
+     * @param securityGroupIds Security groups to apply on the ports as Nova does not apply them on existing ports.
+     * @param count Number of ports to create.
+     */
+    public @Nonnull List<? extends Port> createPoolPorts(
+            @Nonnull String owner,
+            @Nonnull String networkId,
+            @Nonnull List<String> securityGroupIds,
+            @Nonnegative int count)
+            throws ActionFailed {
+        String name = poolPortPrefix() + owner;
+        List<Port> request = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PortBuilder port = Builders.port().name(name).networkId(networkId);
+            for (String sg : securityGroupIds) {
+                port.securityGroup(sg);
+            }
+            request.add(port.build());
+        }
+
+        try {
+            List<? extends Port> created = clientProvider.get().networking().port().create(request);
+            debug("Created {0} ports in {1} for {2}", String.valueOf(created.size()), networkId, owner);
+            return created;
+        } catch (ResponseException ex) {
+            throw new ActionFailed(ex.getMessage() + " Creating ports for " + owner, ex);
+        }
+    }
+
+    /**
+     * Get pre-created ports of given pool that are not bound to any server.
+     */
+    public @Nonnull List<Port> getFreePoolPorts(@Nonnull String owner) {
+        List<? extends Port> ports = clientProvider
+                .get()
+                .networking()
+                .port()
+                .list(PortListOptions.create().name(poolPortPrefix() + owner));
+
+        List<Port> free = new ArrayList<>();
+        for (Port port : ports) {
+            if (Util.fixEmpty(port.getDeviceId()) == null) {
+                free.add(port);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Get pre-created ports of all pools that are not bound to any server.
+     *
+     * @return Free ports indexed by pool owner.
+     */
+    public @Nonnull Map<String, List<Port>> getFreePoolPorts() {
+        String prefix = poolPortPrefix();
+        Map<String, List<Port>> free = new HashMap<>();
+        for (Port port : clientProvider.get().networking().port().list()) {
+            String name = port.getName();
+            if (name == null || !name.startsWith(prefix)) continue; // Not ours
+            if (Util.fixEmpty(port.getDeviceId()) != null) continue; // Bound
+
+            free.computeIfAbsent(name.substring(prefix.length()), k -> new ArrayList<>())
+                    .add(port);
+        }
+        return free;
+    }
+
+    /**
+     * Get volumes of destroyed servers that Cinder kept.
+     *
+     * Those are boot volumes created for the servers, identified by the description set when they were created, see
+     * {@link jenkins.plugins.openstack.compute.slaveopts.BootSource#afterProvisioning(Server, Openstack)}.
+     */
+    public @Nonnull List<String> getLeakedVolumeIds() {
+        List<String> leaked = new ArrayList<>();
+        for (Volume volume : clientProvider.get().blockStorage().volumes().list()) {
+            if (volume.getStatus() != Volume.Status.AVAILABLE) continue; // Attached or being deleted already
+
+            String serverId = FipScope.getServerId(instanceUrl(), instanceFingerprint(), volume.getDescription());
+            if (serverId == null) continue; // Not ours
+
+            leaked.add(volume.getId());
+        }
+        return leaked;
+    }
+
+    public void destroyVolume(@Nonnull String volumeId) {
+        ActionResponse delete = clientProvider.get().blockStorage().volumes().delete(volumeId);
+
+        // Deleted by some other action. Being idempotent here and reporting success.
+        if (delete.getCode() == 404) return;
+
+        throwIfFailed(delete);
+    }
+
+    /**
+     * Get ports of destroyed servers that Neutron kept.
+     *
+     * Those are identified by the name set before the server was destroyed, see {@link #destroyServer(Server)}.
+     */
+    public @Nonnull List<String> getLeakedPortIds() {
+        String prefix = SERVER_PORT_PREFIX + instanceFingerprint() + ":";
+        List<String> leaked = new ArrayList<>();
+        for (Port port : clientProvider.get().networking().port().list()) {
+            String name = port.getName();
+            if (name != null && name.startsWith(prefix)) {
+                leaked.add(port.getId());
+            }
+        }
+        return leaked;
+    }
+
+    public void destroyPort(@Nonnull String portId) {
+        ActionResponse delete = clientProvider.get().networking().port().delete(portId);
+
+        // Deleted by some other action. Being idempotent here and reporting success.
+        if (delete.getCode() == 404) return;
+
+        throwIfFailed(delete);
+    }
+
+    private @Nonnull String poolPortPrefix() {
+        return POOL_PORT_PREFIX + instanceFingerprint() + ":";
+    }
+
     public @Nonnull List<String> getSortedKeyPairNames() {
         List<String> keyPairs = new ArrayList<>();
         for (Keypair kp : clientProvider.get().compute().keypairs().list()) {
@@ -645,7 +856,8 @@ public class Openstack {
         String nodeId = server.getId();
 
         NetFloatingIPService fipService = clientProvider.get().networking().floatingip();
-        List<String> portIds = getServerPorts(server).stream().map(Port::getId).collect(Collectors.toList());
+        List<? extends Port> ports = getServerPorts(server);
+        List<String> portIds = ports.stream().map(Port::getId).collect(Collectors.toList());
         List<? extends NetFloatingIP> associatedFips = fipService.list().stream()
                 .filter(fip -> portIds.contains(fip.getPortId()))
                 .collect(Collectors.toList());
@@ -654,6 +866,8 @@ public class Openstack {
         server = servers.get(nodeId);
         if (server == null || server.getStatus() == Server.Status.DELETED) {
             debug("Machine destroyed: {0}", nodeId);
+        } else {
+            tagPorts(server, ports);
         }
 
         ActionResponse serverDelete = servers.delete(nodeId);
@@ -672,6 +886,161 @@ public class Openstack {
 
             throwIfFailed(fipDelete);
         }
+
+        // Nova preserves the ports it was given on server deletion
+        String poolPortPrefix = poolPortPrefix();
+        for (Port port : ports) {
+            String name = port.getName();
+            if (name != null && name.startsWith(poolPortPrefix)) {
+                destroyPort(port.getId());
+            }
+        }
+    }
+
+    /**
+     * Is the server parked to be brought back when needed, rather than running.
+     */
+    public static boolean isParked(@Nonnull Server server) {
+        Server.Status status = server.getStatus();
+        return status == Server.Status.SHELVED
+                || status == Server.Status.SHELVED_OFFLOADED
+                || status == Server.Status.SUSPENDED;
+    }
+
+    /**
+     * Shelve or suspend the server so it does not occupy compute resources while not needed.
+     */
+    public void parkServer(@Nonnull String serverId, boolean suspend) throws ActionFailed {
+        debug("Parking server {0}", serverId);
+        Action action = suspend ? Action.SUSPEND : Action.SHELVE;
+        throwIfFailed(clientProvider.get().compute().servers().action(serverId, action));
+    }
+
+    /**
+     * Bring parked server back. Caller is expected to wait for the server to get active.
+     *
+     * @throws NoSuchElementException If the server is gone.
+     */
+    public void unparkServer(@Nonnull String serverId) throws ActionFailed, NoSuchElementException {
+        debug("Unparking server {0}", serverId);
+        Server server = getServerById(serverId);
+        if (server.getStatus() == Server.Status.ACTIVE && server.getTaskState() == null) {
+            return; // Brought back before Jenkins restarted
+        }
+
+        Action action = server.getStatus() == Server.Status.SUSPENDED ? Action.RESUME : Action.UNSHELVE;
+        throwIfFailed(clientProvider.get().compute().servers().action(serverId, action));
+    }
+
+    /**
+     * Reset the server from an image under a new name, keeping its ports and floating IPs.
+     *
+     * Caller is expected to wait for the server to get active.
+     *
+     * @param imageId Image to rebuild the server from, not necessarily the one it was booted from.
+     * @param metadata Metadata items to update.
+     * @return Updated server.
+     * @throws NoSuchElementException If the server is gone.
+     */
+    public @Nonnull Server rebuildServer(
+            @Nonnull String serverId,
+            @Nonnull String imageId,
+            @Nonnull String name,
+            @Nonnull Map<String, String> metadata)
+            throws ActionFailed, NoSuchElementException {
+        if (Util.fixEmpty(getServerById(serverId).getImageId()) == null) {
+            throw new ActionFailed("Server " + serverId + " was not booted from an image");
+        }
+
+        debug("Rebuilding server {0} from {1} as {2}", serverId, imageId, name);
+        ServerService servers = clientProvider.get().compute().servers();
+        // Updated ahead so the server is not considered out of scope of the node it is rebuilt for
+        servers.updateMetadata(serverId, metadata);
+        Server rebuilt = servers.rebuild(serverId, RebuildOptions.create().image(imageId).name(name));
+        if (rebuilt == null) throw new ActionFailed("Failed to rebuild server " + serverId);
+
+        return getServerById(serverId);
+    }
+
+    /**
+     * Tail of the server console log.
+     *
+     * @return The log, or null if Nova does not provide it.
+     */
+    public @CheckForNull String getServerConsoleOutput(@Nonnull String serverId, int lines) {
+        return clientProvider.get().compute().servers().getConsoleOutput(serverId, lines);
+    }
+
+    /**
+     * Snapshot the server to an image baked for the owner. Caller is expected to wait for the image to get active.
+     *
+     * @return ID of the image created.
+     */
+    public @Nonnull String bakeImage(@Nonnull String serverId, @Nonnull String owner) throws ActionFailed {
+        debug("Baking image of server {0} for {1}", serverId, owner);
+        String imageId = clientProvider.get().compute().servers().createSnapshot(serverId, bakedImagePrefix() + owner);
+        if (imageId == null) throw new ActionFailed("Failed to snapshot server " + serverId);
+        return imageId;
+    }
+
+    /**
+     * Active images baked for the owner, oldest first.
+     */
+    public @Nonnull List<Image> getBakedImages(@Nonnull String owner) {
+        Map<String, String> query = new HashMap<>(2);
+        query.put("name", bakedImagePrefix() + owner);
+        query.put("status", "active");
+        List<Image> images = new ArrayList<>(clientProvider.get().imagesV2().list(query));
+        images.sort(IMAGE_DATE_COMPARATOR);
+        return images;
+    }
+
+    /**
+     * @return The image or null if it does not exist.
+     */
+    public @CheckForNull Image getImage(@Nonnull String imageId) {
+        return clientProvider.get().imagesV2().get(imageId);
+    }
+
+    public void destroyImage(@Nonnull String imageId) {
+        ActionResponse delete = clientProvider.get().imagesV2().delete(imageId);
+
+        // Deleted by some other action. Being idempotent here and reporting success.
+        if (delete.getCode() == 404) return;
+
+        throwIfFailed(delete);
+    }
+
+    private @Nonnull String bakedImagePrefix() {
+        return BAKED_IMAGE_PREFIX + instanceFingerprint() + ":";
+    }
+
+    /**
+     * Mark ports Nova is expected to delete with the server, so they can be found should that fail.
+     *
+     * Boot volumes are marked when created, see
+     * {@link jenkins.plugins.openstack.compute.slaveopts.BootSource#afterProvisioning(Server, Openstack)}. Volumes
+     * attached otherwise are not ours to delete.
+     *
+     * Best effort, failing to mark them must not prevent the deletion.
+     */
+    private void tagPorts(@Nonnull Server server, @Nonnull List<? extends Port> ports) {
+        try {
+            for (Port port : ports) {
+                String name = port.getName();
+                if (name != null && name.startsWith(POOL_PORT_PREFIX)) continue; // Deleted explicitly
+
+                clientProvider
+                        .get()
+                        .networking()
+                        .port()
+                        .update(port.toBuilder()
+                                .name(SERVER_PORT_PREFIX + instanceFingerprint() + ":" + server.getId())
+                                .build());
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.FINE, "Unable to tag resources of " + server.getId(), ex);
+        }
     }
 
     /**
@@ -1000,10 +1369,18 @@ public class Openstack {
      * versions of keystone.
      */
     private abstract static class ClientProvider {
+        // Clients handed out on this thread, each of them is used for a request or a few
+        private static final ThreadLocal<long[]> REQUESTS = ThreadLocal.withInitial(() -> new long[1]);
+
         /**
          * Reuse auth session between different threads creating separate client for every use.
          */
-        public abstract @Nonnull OSClient<?> get();
+        public final @Nonnull OSClient<?> get() {
+            REQUESTS.get()[0]++;
+            return create();
+        }
+
+        protected abstract @Nonnull OSClient<?> create();
 
         public abstract @Nonnull String getInfo();
 
@@ -1028,7 +1405,7 @@ public class Openstack {
                 config = clientConfig;
             }
 
-            public @Nonnull OSClient<?> get() {
+            protected @Nonnull OSClient<?> create() {
                 return OSFactory.clientFromAccess(storage, config).useRegion(region);
             }
 
@@ -1060,7 +1437,7 @@ public class Openstack {
                 config = clientConfig;
             }
 
-            public @Nonnull OSClient<?> get() {
+            protected @Nonnull OSClient<?> create() {
                 return OSFactory.clientFromToken(storage, config).useRegion(region);
             }
 
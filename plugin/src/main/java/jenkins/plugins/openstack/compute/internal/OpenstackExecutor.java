@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute.internal;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Executor for tasks blocking on OpenStack I/O, so they do not starve the remoting pool or the shared timer.
+ *
+ * Tasks run on virtual threads when the JVM supports them, on a bounded pool of platform threads otherwise.
+ */
+@Restricted(NoExternalUse.class)
+@ThreadSafe
+@ExportedBean
+public final class OpenstackExecutor extends AbstractExecutorService {
+    private static final Logger LOGGER = Logger.getLogger(OpenstackExecutor.class.getName());
+
+    // Number of platform threads when virtual threads are not available
+    private static final int POOL_SIZE =
+            SystemProperties.getInteger(OpenstackExecutor.class.getName() + ".poolSize", 32);
+
+    private static final OpenstackExecutor INSTANCE = new OpenstackExecutor(createDelegate(POOL_SIZE));
+
+    private final @Nonnull ExecutorService delegate;
+    private final boolean virtual;
+    private final @Nonnull AtomicInteger queued = new AtomicInteger();
+    private final @Nonnull AtomicInteger active = new AtomicInteger();
+    private final @Nonnull AtomicLong completed = new AtomicLong();
+
+    /*package*/ OpenstackExecutor(@Nonnull ExecutorService delegate) {
+        this.delegate = delegate;
+        this.virtual = !(delegate instanceof ThreadPoolExecutor);
+    }
+
+    public static @Nonnull OpenstackExecutor get() {
+        return INSTANCE;
+    }
+
+    /*package*/ static @Nonnull ExecutorService createDelegate(int poolSize) {
+        try {
+            // Java 21+, looked up reflectively as the plugin is built for older versions
+            ExecutorService virtual = (ExecutorService)
+                    Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            LOGGER.fine("Running OpenStack I/O on virtual threads");
+            return virtual;
+        } catch (NoSuchMethodException ex) {
+            // Expected before Java 21
+        } catch (IllegalAccessException | InvocationTargetException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Unable to create virtual thread executor", ex);
+        }
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "OpenStack I/O"));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Override
+    public void execute(@Nonnull Runnable command) {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RuntimeException ex) {
+            queued.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return true if the tasks run on virtual threads.
+     */
+    @Exported
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * @return Number of tasks submitted and waiting for a thread.
+     */
+    @Exported
+    public int getQueueLength() {
+        return queued.get();
+    }
+
+    /**
+     * @return Number of tasks running.
+     */
+    @Exported
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return Number of tasks completed since Jenkins started.
+     */
+    @Exported
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public @Nonnull List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "OpenStack I/O executor (" + (virtual ? "virtual threads" : POOL_SIZE + " threads") + "): "
+                + getQueueLength() + " queued, " + getActiveCount() + " active, " + getCompletedCount() + " completed";
+    }
+}
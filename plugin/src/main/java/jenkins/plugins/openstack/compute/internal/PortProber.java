@@ -0,0 +1,263 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute.internal;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Watch ports of servers being provisioned until they open.
+ *
+ * One thread per cloud connects to all the pending addresses using non-blocking sockets. The thread is started when
+ * there is something to probe and it stops once no probe is pending.
+ */
+@Restricted(NoExternalUse.class)
+@ThreadSafe
+public final class PortProber {
+    private static final Logger LOGGER = Logger.getLogger(PortProber.class.getName());
+
+    private static final Map<String, PortProber> PROBERS = new ConcurrentHashMap<>();
+
+    // Time for the connection to be established before it is attempted again
+    private static final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+    // Time to wait after the connection was refused before it is attempted again
+    private static final long RETRY_DELAY = TimeUnit.SECONDS.toMillis(1);
+    // Longest time the thread waits for connections before checking timeouts and retries
+    private static final long SELECT_TIMEOUT = 250;
+
+    private final @Nonnull String cloudName;
+    private final @Nonnull Map<String, Probe> probes = new ConcurrentHashMap<>();
+
+    // Both guarded by this, set while the thread is running
+    private Thread thread;
+    private Selector selector;
+
+    private PortProber(@Nonnull String cloudName) {
+        this.cloudName = cloudName;
+    }
+
+    public static @Nonnull PortProber get(@Nonnull String cloudName) {
+        return PROBERS.computeIfAbsent(cloudName, PortProber::new);
+    }
+
+    /**
+     * Probe the address until the port opens, unless there already is a probe for the key.
+     *
+     * @param key Identification of the probe, typically the node name.
+     */
+    public @Nonnull Probe probe(@Nonnull String key, @Nonnull InetSocketAddress address) {
+        Probe probe = probes.computeIfAbsent(key, k -> new Probe(address));
+        synchronized (this) {
+            if (thread == null) {
+                try {
+                    selector = Selector.open();
+                } catch (IOException ex) {
+                    probe.future.completeExceptionally(ex);
+                    return probe;
+                }
+                thread = new Thread(this::run, "OpenStack port prober for " + cloudName);
+                thread.setDaemon(true);
+                thread.start();
+            } else {
+                selector.wakeup();
+            }
+        }
+        return probe;
+    }
+
+    /**
+     * @return The probe, or null if there is none for the key.
+     */
+    public @CheckForNull Probe getProbe(@Nonnull String key) {
+        return probes.get(key);
+    }
+
+    /**
+     * Stop probing and forget the probe.
+     */
+    public void cancel(@Nonnull String key) {
+        Probe probe = probes.remove(key);
+        if (probe != null) {
+            probe.future.cancel(false);
+        }
+    }
+
+    private void run() {
+        Selector selector;
+        synchronized (this) {
+            selector = this.selector;
+        }
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                boolean pending = false;
+                for (Probe probe : probes.values()) {
+                    if (probe.future.isDone()) continue;
+
+                    pending = true;
+                    if (probe.channel == null && now >= probe.nextAttempt) {
+                        connect(probe, selector, now);
+                    } else if (probe.channel != null && now > probe.deadline) {
+                        retry(probe, now);
+                    }
+                }
+
+                // Connection attempts of cancelled probes
+                for (SelectionKey key : selector.keys()) {
+                    Probe probe = (Probe) key.attachment();
+                    if (probe.future.isDone()) {
+                        close(probe);
+                    }
+                }
+
+                if (!pending) {
+                    synchronized (this) {
+                        if (probes.values().stream().allMatch(p -> p.future.isDone())) {
+                            thread = null;
+                            this.selector = null;
+                            selector.close();
+                            return;
+                        }
+                    }
+                    continue;
+                }
+
+                selector.select(SELECT_TIMEOUT);
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    Probe probe = (Probe) key.attachment();
+                    try {
+                        if (((SocketChannel) key.channel()).finishConnect()) {
+                            close(probe);
+                            probe.future.complete(null);
+                        }
+                    } catch (IOException ex) {
+                        LOGGER.log(Level.FINEST, "Port at " + probe.address + " not open (yet)", ex);
+                        retry(probe, System.currentTimeMillis());
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Port prober for " + cloudName + " failed", ex);
+            synchronized (this) {
+                thread = null;
+                this.selector = null;
+                for (Probe probe : probes.values()) {
+                    close(probe);
+                    probe.future.completeExceptionally(ex);
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                ex.addSuppressed(e);
+            }
+        }
+    }
+
+    private void connect(@Nonnull Probe probe, @Nonnull Selector selector, long now) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            probe.channel = channel;
+            probe.deadline = now + CONNECT_TIMEOUT;
+            if (channel.connect(probe.address)) {
+                close(probe);
+                probe.future.complete(null);
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, probe);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINEST, "Port at " + probe.address + " not open (yet)", ex);
+            retry(probe, now);
+        } catch (RuntimeException ex) {
+            // Unresolved or unsupported address, there is no point in retrying
+            close(probe);
+            probe.future.completeExceptionally(ex);
+        }
+    }
+
+    private void retry(@Nonnull Probe probe, long now) {
+        close(probe);
+        probe.nextAttempt = now + RETRY_DELAY;
+    }
+
+    private void close(@Nonnull Probe probe) {
+        SocketChannel channel = probe.channel;
+        if (channel == null) return;
+
+        probe.channel = null;
+        try {
+            channel.close(); // Deregisters from the selector
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Failed to close connection to " + probe.address, ex);
+        }
+    }
+
+    /**
+     * Pending or resolved probe of a port.
+     */
+    public static final class Probe {
+        private final @Nonnull InetSocketAddress address;
+        private final @Nonnull CompletableFuture<Void> future = new CompletableFuture<>();
+
+        // Accessed by the prober thread only
+        private SocketChannel channel;
+        private long deadline;
+        private long nextAttempt;
+
+        private Probe(@Nonnull InetSocketAddress address) {
+            this.address = address;
+        }
+
+        public @Nonnull InetSocketAddress getAddress() {
+            return address;
+        }
+
+        /**
+         * Completed once the port opens, exceptionally when it can not be probed.
+         */
+        public @Nonnull CompletableFuture<Void> getFuture() {
+            return future;
+        }
+    }
+}
@@ -45,6 +45,7 @@ import jenkins.plugins.openstack.compute.JCloudsCloud;
 import jenkins.plugins.openstack.compute.OsAuthDescriptor;
 import jenkins.plugins.openstack.compute.auth.OpenstackCredential;
 import jenkins.plugins.openstack.compute.auth.OpenstackCredentials;
+import jenkins.plugins.openstack.compute.internal.FipScope;
 import jenkins.plugins.openstack.compute.internal.Openstack;
 import net.sf.json.JSONObject;
 import org.jenkinsci.Symbol;
@@ -108,6 +109,39 @@ public abstract class BootSource extends AbstractDescribableImpl<BootSource> imp
         return (BootSourceDescriptor) super.getDescriptor();
     }
 
+    /**
+     * Name the volumes created to boot the server from and mark them as ours, so they can be deleted should Nova
+     * leave them behind.
+     *
+     * The volumes attached right after the server was booted are those created for the block device mapping.
+     *
+     * @param origin Human readable description of what the volumes were created from.
+     */
+    protected static void tagBootVolumes(@Nonnull Server server, @Nonnull Openstack openstack, @Nonnull String origin) {
+        final List<String> volumeIds = server.getOsExtendedVolumesAttached();
+        if (volumeIds == null) return;
+
+        final String instanceName = server.getName();
+        final String note = "For " + instanceName + " (" + server.getId() + "), from " + origin + ".";
+        int i = 0;
+        for (final String volumeId : volumeIds) {
+            final String newVolumeName = instanceName + '[' + (i++) + ']';
+            try {
+                final String newVolumeDescription = FipScope.getDescription(
+                        openstack.instanceUrl(), openstack.instanceFingerprint(), server, note);
+                openstack.setVolumeNameAndDescription(volumeId, newVolumeName, newVolumeDescription);
+            } catch (Openstack.ActionFailed | IllegalStateException ex) {
+                /*
+                 * Some versions of OpenStack work better than others. Not all will accept this
+                 * operation. However, a failure to set the name and description is purely
+                 * cosmetic and does not affect our ability to use the instance, so we log the
+                 * problem and carry on.
+                 */
+                LOGGER.warning("Unable to set volume " + volumeId + " name and description: " + ex.getMessage());
+            }
+        }
+    }
+
     protected String selectIdFromListAndLogProblems(List<String> matchingIds, String name, String pluralOfNameType) {
         int size = matchingIds.size();
         final String id;
@@ -227,7 +261,8 @@ public abstract class BootSource extends AbstractDescribableImpl<BootSource> imp
 
     public static class Image extends BootSource {
         private static final long serialVersionUID = -8309975034351235331L;
-        private static final String OPENSTACK_BOOTSOURCE_IMAGE_ID_KEY = "jenkins-boot-image-id";
+        @Restricted(NoExternalUse.class)
+        public static final String OPENSTACK_BOOTSOURCE_IMAGE_ID_KEY = "jenkins-boot-image-id";
 
         protected final @Nonnull String name;
 
@@ -246,13 +281,20 @@ public abstract class BootSource extends AbstractDescribableImpl<BootSource> imp
         public void setServerBootSource(@Nonnull ServerCreateBuilder builder, @Nonnull Openstack os)
                 throws JCloudsCloud.ProvisioningFailedException {
             super.setServerBootSource(builder, os);
-            final List<String> matchingIds = getDescriptor().findMatchingIds(os, name);
-            final String id = selectIdFromListAndLogProblems(matchingIds, name, "Images");
+            final String id = getImageId(os);
 
             builder.image(id);
             builder.addMetadataItem(OPENSTACK_BOOTSOURCE_IMAGE_ID_KEY, id);
         }
 
+        /**
+         * Image servers are booted from now, it can change over time when the name is not an ID.
+         */
+        public @Nonnull String getImageId(@Nonnull Openstack os) {
+            final List<String> matchingIds = getDescriptor().findMatchingIds(os, name);
+            return selectIdFromListAndLogProblems(matchingIds, name, "Images");
+        }
+
         @Override
         public String toString() {
             return "Image " + name;
@@ -370,6 +412,15 @@ public abstract class BootSource extends AbstractDescribableImpl<BootSource> imp
             builder.addMetadataItem(OPENSTACK_BOOTSOURCE_VOLUME_FROM_IMAGE_ID_KEY, id);
         }
 
+        @Override
+        public void afterProvisioning(@Nonnull Server server, @Nonnull Openstack openstack) {
+            final Map<String, String> instanceMetaData = server.getMetadata();
+            final String imageId = instanceMetaData == null
+                    ? null
+                    : instanceMetaData.get(OPENSTACK_BOOTSOURCE_VOLUME_FROM_IMAGE_ID_KEY);
+            tagBootVolumes(server, openstack, "Image " + name + (imageId == null ? "" : " (" + imageId + ")"));
+        }
+
         @Override
         public String toString() {
             return "Volume from Image " + name + " (" + volumeSize + "GB)";
@@ -456,29 +507,14 @@ public abstract class BootSource extends AbstractDescribableImpl<BootSource> imp
              * does not give that Volume a name or description. We do this so
              * that humans can recognize those Volumes.
              */
-            final List<String> volumeIds = server.getOsExtendedVolumesAttached();
-            final String instanceId = server.getId();
-            final String instanceName = server.getName();
             final Map<String, String> instanceMetaData = server.getMetadata();
             final String instanceVolumeSnapshotId =
                     instanceMetaData == null ? null : instanceMetaData.get(OPENSTACK_BOOTSOURCE_VOLUMESNAPSHOT_ID_KEY);
-            int i = 0;
-            final String newVolumeDescription = "For " + instanceName + " (" + instanceId + "), from VolumeSnapshot "
-                    + name + (instanceVolumeSnapshotId == null ? "" : " (" + instanceVolumeSnapshotId + ")") + ".";
-            for (final String volumeId : volumeIds) {
-                final String newVolumeName = instanceName + '[' + (i++) + ']';
-                try {
-                    openstack.setVolumeNameAndDescription(volumeId, newVolumeName, newVolumeDescription);
-                } catch (Openstack.ActionFailed ex) {
-                    /*
-                     * Some versions of OpenStack work better than others. Not all will accept this
-                     * operation. However, a failure to set the name and description is purely
-                     * cosmetic and does not affect our ability to use the instance, so we log the
-                     * problem and carry on.
-                     */
-                    LOGGER.warning("Unable to set volume " + volumeId + " name and description: " + ex.getMessage());
-                }
-            }
+            tagBootVolumes(
+                    server,
+                    openstack,
+                    "VolumeSnapshot " + name
+                            + (instanceVolumeSnapshotId == null ? "" : " (" + instanceVolumeSnapshotId + ")"));
         }
 
         @Override
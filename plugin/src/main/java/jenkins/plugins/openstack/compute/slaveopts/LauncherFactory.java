@@ -33,31 +33,36 @@ import hudson.model.AbstractDescribableImpl;
 import hudson.model.Computer;
 import hudson.model.Descriptor;
 import hudson.model.ItemGroup;
+import hudson.model.TaskListener;
 import hudson.plugins.sshslaves.SSHLauncher;
 import hudson.plugins.sshslaves.verifiers.NonVerifyingKeyVerificationStrategy;
 import hudson.security.ACL;
 import hudson.security.AccessControlled;
 import hudson.slaves.ComputerLauncher;
+import hudson.slaves.ComputerListener;
 import hudson.slaves.JNLPLauncher;
 import hudson.util.ListBoxModel;
 import java.io.IOException;
 import java.io.Serializable;
-import java.net.ConnectException;
 import java.net.InetSocketAddress;
-import java.net.NoRouteToHostException;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
 import java.util.Collections;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import jenkins.model.Jenkins;
 import jenkins.plugins.openstack.compute.JCloudsCloud;
+import jenkins.plugins.openstack.compute.JCloudsComputer;
 import jenkins.plugins.openstack.compute.JCloudsSlave;
 import jenkins.plugins.openstack.compute.SlaveOptions;
+import jenkins.plugins.openstack.compute.internal.PortProber;
 import net.sf.json.JSONObject;
 import org.jenkinsci.Symbol;
 import org.kohsuke.accmod.Restricted;
@@ -83,6 +88,15 @@ public abstract class LauncherFactory extends AbstractDescribableImpl<LauncherFa
      */
     public abstract ComputerLauncher createLauncher(@Nonnull JCloudsSlave slave) throws IOException;
 
+    /**
+     * Create launcher for the node loaded from disk.
+     *
+     * The node is being loaded by Jenkins so the launcher is not to add it or connect anything.
+     */
+    public ComputerLauncher restoreLauncher(@Nonnull JCloudsSlave slave) throws IOException {
+        return createLauncher(slave);
+    }
+
     /**
      * Detect the machine is provisioned and can be added to Jenkins for launching.
      *
@@ -97,6 +111,28 @@ public abstract class LauncherFactory extends AbstractDescribableImpl<LauncherFa
     public abstract @CheckForNull String isWaitingFor(@Nonnull JCloudsSlave slave)
             throws JCloudsCloud.ProvisioningFailedException;
 
+    /**
+     * Future completed once the node might have become ready, so {@link #isWaitingFor(JCloudsSlave)} is to be checked
+     * again before the polling period elapses.
+     *
+     * Completes when the server reports it is ready, provided it did not before. Factories that learn about the node
+     * being ready without polling complete it as soon as it is.
+     */
+    public @Nonnull CompletableFuture<?> whenReady(@Nonnull JCloudsSlave slave) {
+        CompletableFuture<Long> report = slave.getReadinessReport();
+        return report.isDone() ? new CompletableFuture<>() : report;
+    }
+
+    /**
+     * Check the launcher created for the node can still reach it, after a failed launch or when the server was brought
+     * back from parking.
+     *
+     * @return true if the launcher is to be created again.
+     */
+    public boolean isLauncherOutdated(@Nonnull JCloudsSlave slave) {
+        return false;
+    }
+
     /**
      * Callback run when the node is being terminated.
      *
@@ -104,12 +140,23 @@ public abstract class LauncherFactory extends AbstractDescribableImpl<LauncherFa
      */
     public void onNodeTerminated() {}
 
+    /**
+     * Callback run when the node is being terminated, {@link #onNodeTerminated()} unless overridden.
+     *
+     * This is before the resources are removed.
+     */
+    public void onNodeTerminated(@Nonnull JCloudsSlave slave) {
+        onNodeTerminated();
+    }
+
     /**
      * Launch nodes via ssh-slaves plugin.
      */
     public static final class SSH extends LauncherFactory {
         private static final long serialVersionUID = -1108865485314632255L;
 
+        private static final int SSH_PORT = 22;
+
         private final @Nonnull String credentialsId;
         private final @CheckForNull String javaPath;
 
@@ -144,7 +191,7 @@ public abstract class LauncherFactory extends AbstractDescribableImpl<LauncherFa
 
             return new SSHLauncher(
                     publicAddress,
-                    22,
+                    SSH_PORT,
                     credentialsId,
                     opts.getJvmOptions(),
                     javaPath,
@@ -156,6 +203,15 @@ public abstract class LauncherFactory extends AbstractDescribableImpl<LauncherFa
                     new NonVerifyingKeyVerificationStrategy());
         }
 
+        /**
+         * The launcher is outdated when the access address of the server changed.
+         */
+        @Override
+        public boolean isLauncherOutdated(@Nonnull JCloudsSlave slave) {
+            String address = slave.getPublicAddress();
+            return !Objects.equals(address, slave.refreshPublicAddress());
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -178,49 +234,63 @@ public abstract class LauncherFactory extends AbstractDescribableImpl<LauncherFa
 
         /**
          * The node is considered ready when ssh port is open.
+         *
+         * The port is watched by the {@link PortProber} of the cloud, the address is resolved only once per node.
          */
         @Override
         public @CheckForNull String isWaitingFor(@Nonnull JCloudsSlave slave) {
-
-            // richnou:
-            //	Use Ipv4 Method to make sure IPV4 is the default here
-            //	OVH cloud provider returns IPV6 as last address, and getPublicAddress returns the last address
-            //  The Socket connection test then does not work.
-            //	This method could return the address object and work on it, but for now stick to IPV4
-            //  for the sake of simplicity
-
-            String publicAddress;
-            try {
-                publicAddress = slave.getPublicAddress();
-                if (publicAddress == null) {
-                    throw new JCloudsCloud.ProvisioningFailedException(
-                            "No accessible address provided for agent " + slave.getNodeName());
+            PortProber prober = PortProber.get(slave.getId().getCloudName());
+            PortProber.Probe probe = prober.getProbe(slave.getNodeName());
+            if (probe == null) {
+                // richnou:
+                //	Use Ipv4 Method to make sure IPV4 is the default here
+                //	OVH cloud provider returns IPV6 as last address, and getPublicAddress returns the last address
+                //  The Socket connection test then does not work.
+                //	This method could return the address object and work on it, but for now stick to IPV4
+                //  for the sake of simplicity
+
+                String publicAddress;
+                try {
+                    publicAddress = slave.getPublicAddress();
+                    if (publicAddress == null) {
+                        throw new JCloudsCloud.ProvisioningFailedException(
+                                "No accessible address provided for agent " + slave.getNodeName());
+                    }
+                } catch (NoSuchElementException ex) {
+                    throw new JCloudsCloud.ProvisioningFailedException(ex.getMessage(), ex);
                 }
-            } catch (NoSuchElementException ex) {
-                throw new JCloudsCloud.ProvisioningFailedException(ex.getMessage(), ex);
+
+                // Wait until ssh is exposed not to timeout for too long in ssh-slaves launcher
+                probe = prober.probe(slave.getNodeName(), new InetSocketAddress(publicAddress, SSH_PORT));
             }
 
-            // Wait until ssh is exposed not to timeout for too long in ssh-slaves launcher
+            CompletableFuture<Void> open = probe.getFuture();
+            if (!open.isDone()) {
+                return "SSH port at " + probe.getAddress().getHostString() + " not open (yet)";
+            }
             try {
-                Socket socket = new Socket();
-                socket.connect(new InetSocketAddress(publicAddress, 22), 500);
-                socket.close();
-                return null;
-            } catch (ConnectException | NoRouteToHostException | SocketTimeoutException ex) {
-                // Exactly what we are looking for
-                String msg = "SSH port at " + publicAddress + " not open (yet)";
-                LOGGER.log(Level.FINEST, msg, ex);
-                return msg;
-            } catch (IOException ex) {
-                // TODO: General IOException to be understood and handled explicitly
-                String msg = "SSH port at " + publicAddress + " does not seem to respond correctly: " + ex.getMessage();
-                LOGGER.log(Level.INFO, msg, ex);
-                return msg;
-            } catch (Exception ex) {
+                open.join();
+            } catch (CancellationException | CompletionException ex) {
                 LOGGER.log(Level.WARNING, "SSH probe failed", ex);
                 // We have no idea what happen. Log the cause and proceed with the server so it fail fast.
-                return null;
             }
+            return null;
+        }
+
+        @Override
+        public @Nonnull CompletableFuture<?> whenReady(@Nonnull JCloudsSlave slave) {
+            PortProber.Probe probe = PortProber.get(slave.getId().getCloudName()).getProbe(slave.getNodeName());
+            if (probe == null) return super.whenReady(slave);
+
+            return slave.getReadinessReport().isDone()
+                    ? probe.getFuture()
+                    : CompletableFuture.anyOf(probe.getFuture(), slave.getReadinessReport());
+        }
+
+        @Override
+        public void onNodeTerminated(@Nonnull JCloudsSlave slave) {
+            PortProber.get(slave.getId().getCloudName()).cancel(slave.getNodeName());
+            super.onNodeTerminated(slave);
         }
 
         @Extension
@@ -255,33 +325,59 @@ public abstract class LauncherFactory extends AbstractDescribableImpl<LauncherFa
         public static final LauncherFactory JNLP = new JNLP();
 
         /**
-         * Track the termination.
+         * Connections of nodes launched since Jenkins started that are neither online nor terminated, by node name.
          *
-         * This is needed so JNLP#isWaitingFor() reports completion when node is terminated before
-         * JCloudsSlaveTEmplate#provisionSlave() detects provisioning is completed.
+         * Completed when the agent connects, so the provisioning does not need to wait for the next poll, or when the
+         * node is terminated before the provisioning detects it is completed.
          */
-        private transient boolean terminated = false;
+        private static final Map<String, CompletableFuture<Void>> PENDING = new ConcurrentHashMap<>();
 
         @DataBoundConstructor // Needed for JCasC
         public JNLP() {}
 
         @Override
         public ComputerLauncher createLauncher(@Nonnull JCloudsSlave slave) throws IOException {
-            terminated = false;
-            Jenkins.get().addNode(slave);
+            String name = slave.getNodeName();
+            PENDING.putIfAbsent(name, new CompletableFuture<>());
+            try {
+                Jenkins.get().addNode(slave);
+            } catch (IOException | RuntimeException ex) {
+                connected(name);
+                throw ex;
+            }
+            return new JNLPLauncher(false);
+        }
+
+        @Override
+        public ComputerLauncher restoreLauncher(@Nonnull JCloudsSlave slave) {
             return new JNLPLauncher(false);
         }
 
         @Override
         public @CheckForNull String isWaitingFor(@Nonnull JCloudsSlave slave) {
             // The address might not be visible at all so let's just wait for connection.
-            return terminated || slave.getChannel() != null ? null : "JNLP connection was not established yet";
+            return PENDING.containsKey(slave.getNodeName()) && slave.getChannel() == null
+                    ? "JNLP connection was not established yet"
+                    : null;
         }
 
         @Override
-        public void onNodeTerminated() {
-            terminated = true;
-            super.onNodeTerminated();
+        public @Nonnull CompletableFuture<?> whenReady(@Nonnull JCloudsSlave slave) {
+            CompletableFuture<Void> connection = PENDING.get(slave.getNodeName());
+            return connection == null ? CompletableFuture.completedFuture(null) : connection;
+        }
+
+        @Override
+        public void onNodeTerminated(@Nonnull JCloudsSlave slave) {
+            connected(slave.getNodeName());
+            super.onNodeTerminated(slave);
+        }
+
+        private static void connected(@Nonnull String nodeName) {
+            CompletableFuture<Void> connection = PENDING.remove(nodeName);
+            if (connection != null) {
+                connection.complete(null);
+            }
         }
 
         @Override
@@ -298,6 +394,17 @@ public abstract class LauncherFactory extends AbstractDescribableImpl<LauncherFa
             return JNLP; // Let's avoid creating instances where we can
         }
 
+        @Extension
+        @Restricted(NoExternalUse.class)
+        public static final class ConnectionListener extends ComputerListener {
+            @Override
+            public void onOnline(Computer c, TaskListener listener) {
+                if (c instanceof JCloudsComputer) {
+                    connected(c.getName());
+                }
+            }
+        }
+
         @Extension
         @Symbol("jnlp")
         public static final class Desc extends Descriptor<LauncherFactory> {
@@ -132,6 +132,16 @@ public final class PluginTestRule extends JenkinsRule {
                 LauncherFactory.JNLP.JNLP,
                 mkListOfNodeProperties(1, 2),
                 1,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
                 null);
     }
 
@@ -283,7 +293,7 @@ public final class PluginTestRule extends JenkinsRule {
     public void triggerOpenstackSlaveCleanup() {
         jenkins.getExtensionList(AsyncPeriodicWork.class)
                 .get(JCloudsCleanupThread.class)
-                .execute(TaskListener.NULL);
+                .reconcileDue();
         AsyncResourceDisposer disposer = AsyncResourceDisposer.get();
         while (disposer.isActivated()) {
             try {
@@ -686,7 +696,11 @@ public final class PluginTestRule extends JenkinsRule {
         }
 
         public MockJCloudsCloud(SlaveOptions opts, JCloudsSlaveTemplate... templates) {
-            super("openstack", "endPointUrl", false, "zone", 2, opts, Arrays.asList(templates), "credentialsId");
+            this("openstack", opts, templates);
+        }
+
+        public MockJCloudsCloud(String name, SlaveOptions opts, JCloudsSlaveTemplate... templates) {
+            super(name, "endPointUrl", false, "zone", 2, opts, Arrays.asList(templates), "credentialsId");
         }
 
         @Override
@@ -27,10 +27,15 @@ package jenkins.plugins.openstack.compute;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.iterableWithSize;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import jenkins.plugins.openstack.PluginTestRule;
 import org.jenkinsci.plugins.cloudstats.CloudStatistics;
 import org.jenkinsci.plugins.cloudstats.ProvisioningActivity;
@@ -124,6 +129,40 @@ public class InstancesMinTest {
                 s2.getComputer().isPendingDelete());
     }
 
+    @Test
+    public void retireOnlyExcessNodesCheckedAtOnce() throws Exception {
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(j.dummySlaveTemplate(
+                j.defaultSlaveOptions()
+                        .getBuilder()
+                        .retentionTime(1)
+                        .instancesMin(2)
+                        .build(),
+                "label")));
+        cloud.setCleanfreq(120); // dont run during test
+        for (int i = 0; i < 5; i++) {
+            j.provision(cloud, "label");
+        }
+
+        List<JCloudsComputer> computers = JCloudsComputer.getAll();
+        assertThat(computers, iterableWithSize(5));
+
+        ExecutorService executor = Executors.newFixedThreadPool(computers.size());
+        try {
+            List<Future<Boolean>> needed = new ArrayList<>();
+            for (JCloudsComputer c : computers) {
+                needed.add(executor.submit(() -> JCloudsPreCreationThread.isNeededReadyComputer(c)));
+            }
+
+            int retired = 0;
+            for (Future<Boolean> n : needed) {
+                if (!n.get()) retired++;
+            }
+            assertEquals(3, retired);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void doNotOverprovision() {
         j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(j.dummySlaveTemplate(
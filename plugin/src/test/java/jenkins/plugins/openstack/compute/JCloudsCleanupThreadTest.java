@@ -2,6 +2,7 @@ package jenkins.plugins.openstack.compute;
 
 import static hudson.model.Label.get;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertEquals;
@@ -9,27 +10,36 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import hudson.Launcher;
 import hudson.model.AbstractBuild;
+import hudson.model.AsyncPeriodicWork;
 import hudson.model.BuildListener;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
 import hudson.model.Result;
+import hudson.model.TaskListener;
 import hudson.model.User;
 import hudson.node_monitors.DiskSpaceMonitorDescriptor;
 import hudson.slaves.OfflineCause;
 import hudson.util.OneShotEvent;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,6 +47,7 @@ import jenkins.model.InterruptedBuildAction;
 import jenkins.plugins.openstack.PluginTestRule;
 import jenkins.plugins.openstack.compute.internal.Openstack;
 import jenkins.plugins.openstack.compute.slaveopts.LauncherFactory;
+import net.sf.json.JSONObject;
 import org.hamcrest.Matchers;
 import org.jenkinsci.plugins.resourcedisposer.AsyncResourceDisposer;
 import org.junit.Ignore;
@@ -45,6 +56,7 @@ import org.junit.Test;
 import org.jvnet.hudson.test.Issue;
 import org.jvnet.hudson.test.TestBuilder;
 import org.openstack4j.model.compute.Server;
+import org.openstack4j.model.network.Port;
 
 /**
  * @author ogondza.
@@ -192,6 +204,51 @@ public class JCloudsCleanupThreadTest {
         }
     }
 
+    @Test
+    public void deleteLeakedResourcesFoundTwice() {
+        JCloudsCloud cloud = j.dummyCloud();
+        Openstack os = cloud.getOpenstack();
+        JCloudsCleanupThread cleanup =
+                j.jenkins.getExtensionList(AsyncPeriodicWork.class).get(JCloudsCleanupThread.class);
+
+        List<String> volumes = new ArrayList<>();
+        for (int i = 0; i < JCloudsCleanupThread.MAX_LEAK_DELETIONS + 5; i++) {
+            volumes.add("volume" + i);
+        }
+        when(os.getLeakedVolumeIds()).thenReturn(volumes);
+        when(os.getLeakedPortIds()).thenReturn(singletonList("port"));
+
+        // Found for the first time
+        Set<String> suspected = cleanup.cleanLeakedResources(cloud, Collections.emptySet(), recorder());
+        assertEquals(volumes.size() + 1, suspected.size());
+        verify(os, never()).destroyVolume(anyString());
+        verify(os, never()).destroyPort(anyString());
+
+        // Confirmed, but deleted only up to the limit. Resource found for the first time is kept
+        List<String> found = new ArrayList<>(volumes);
+        found.add("new-volume");
+        when(os.getLeakedVolumeIds()).thenReturn(found);
+        suspected = cleanup.cleanLeakedResources(cloud, suspected, recorder());
+        verify(os, times(JCloudsCleanupThread.MAX_LEAK_DELETIONS)).destroyVolume(anyString());
+        verify(os, never()).destroyVolume("new-volume");
+        verify(os, never()).destroyPort(anyString());
+        assertEquals(7, suspected.size());
+        assertTrue(suspected.contains("volume:new-volume"));
+        assertTrue(suspected.contains("port:port"));
+
+        // The rest is deleted by the following sweep
+        when(os.getLeakedVolumeIds())
+                .thenReturn(found.subList(JCloudsCleanupThread.MAX_LEAK_DELETIONS, found.size()));
+        suspected = cleanup.cleanLeakedResources(cloud, suspected, recorder());
+        verify(os, times(JCloudsCleanupThread.MAX_LEAK_DELETIONS + 6)).destroyVolume(anyString());
+        verify(os).destroyPort("port");
+        assertTrue(suspected.isEmpty());
+    }
+
+    private static CleanupStatistics.Recorder recorder() {
+        return new CleanupStatistics.Recorder("openstack", TimeUnit.MINUTES.toMillis(1));
+    }
+
     @Test
     public void terminateNodeWithoutServer() throws Exception {
         JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(j.dummySlaveTemplate("label")));
@@ -221,6 +278,61 @@ public class JCloudsCleanupThreadTest {
                 startsWith("OpenStack server (" + serverId + ") is not running for computer "));
     }
 
+    @Test
+    public void confirmManyNodesWithoutServerOneByOne() throws Exception {
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(j.dummySlaveTemplate("label")));
+        cloud.setCleanfreq(2);
+        Openstack os = cloud.getOpenstack();
+
+        for (int i = 0; i < 12; i++) {
+            j.provision(cloud, "label");
+        }
+        assertEquals(12, JCloudsComputer.getAll().size());
+
+        // Listing blip, the servers are still there
+        List<Server> running = os.getRunningNodes();
+        when(os.getRunningNodes()).thenReturn(emptyList());
+
+        TimeUnit.SECONDS.sleep(3); // 3 seconds in order to go over cleanFreq
+        j.triggerOpenstackSlaveCleanup();
+
+        assertEquals(12, JCloudsComputer.getAll().size());
+        for (Server server : running) {
+            verify(os, atLeastOnce()).getServerById(server.getId());
+        }
+
+        // Servers gone
+        doThrow(new NoSuchElementException()).when(os).getServerById(anyString());
+
+        TimeUnit.SECONDS.sleep(3); // 3 seconds in order to go over cleanFreq
+        j.triggerOpenstackSlaveCleanup();
+
+        assertEquals(0, JCloudsComputer.getAll().size());
+    }
+
+    @Test
+    public void confirmNodesWithoutServerByFreshListing() throws Exception {
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(j.dummySlaveTemplate("label")));
+        cloud.setCleanfreq(2);
+        Openstack os = cloud.getOpenstack();
+
+        for (int i = 0; i < 3; i++) {
+            j.provision(cloud, "label");
+        }
+
+        // Listing blip, the servers are listed again when double checked
+        List<Server> running = os.getRunningNodes();
+        when(os.getRunningNodes()).thenReturn(emptyList(), running);
+
+        TimeUnit.SECONDS.sleep(3); // 3 seconds in order to go over cleanFreq
+        j.triggerOpenstackSlaveCleanup();
+
+        assertEquals(3, JCloudsComputer.getAll().size());
+        for (Server server : running) {
+            verify(os, never()).getServerById(server.getId());
+        }
+    }
+
     @Test
     public void terminateNodeWithShutoffServer() throws Exception {
         JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(j.dummySlaveTemplate(
@@ -261,6 +373,130 @@ public class JCloudsCleanupThreadTest {
                 startsWith("OpenStack server (" + builtOn.getId() + ") is not running for computer "));
     }
 
+    @Test
+    public void yieldWhenOverBudget() throws Exception {
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(j.dummySlaveTemplate("label")));
+        cloud.setCleanfreq(2);
+        cloud.setCleanupBudget(1);
+        Openstack os = cloud.getOpenstack();
+
+        JCloudsSlave slave = j.provision(cloud, "label");
+        doThrow(new NoSuchElementException()).when(os).getServerById(eq(slave.getServerId()));
+        when(os.getRunningNodes()).thenAnswer(invocation -> {
+            Thread.sleep(1500); // Degraded cloud
+            return emptyList();
+        });
+
+        TimeUnit.SECONDS.sleep(3); // 3 seconds in order to go over cleanFreq
+        j.triggerOpenstackSlaveCleanup();
+
+        CleanupStatistics stats = cloud.getCleanupStatistics();
+        assertNotNull(stats);
+        assertTrue(stats.toString(), stats.isOverBudget());
+        assertEquals(1, stats.getPhase(CleanupStatistics.Phase.PENDING_DELETION).getExamined());
+        assertEquals(0, stats.getPhase(CleanupStatistics.Phase.PENDING_DELETION).getActed());
+        assertNotNull(stats.getPhase(CleanupStatistics.Phase.OUT_OF_SCOPE_SERVERS));
+        assertNull(stats.getPhase(CleanupStatistics.Phase.NODES_WITHOUT_SERVERS));
+        assertEquals(1, JCloudsComputer.getAll().size());
+
+        when(os.getRunningNodes()).thenReturn(emptyList());
+
+        TimeUnit.SECONDS.sleep(3); // 3 seconds in order to go over cleanFreq
+        j.triggerOpenstackSlaveCleanup();
+
+        stats = cloud.getCleanupStatistics();
+        assertFalse(stats.toString(), stats.isOverBudget());
+        // Resumed with the phase skipped before
+        assertEquals(
+                CleanupStatistics.Phase.NODES_WITHOUT_SERVERS,
+                stats.getPhases().keySet().iterator().next());
+        assertEquals(5, stats.getPhases().size());
+        assertEquals(1, stats.getPhase(CleanupStatistics.Phase.NODES_WITHOUT_SERVERS).getActed());
+        assertEquals(0, JCloudsComputer.getAll().size());
+
+        JSONObject json = j.createWebClient().getJSON("cloud/openstack/api/json?depth=1").getJSONObject();
+        JSONObject exported = json.getJSONObject("cleanupStatistics");
+        assertFalse(exported.getBoolean("overBudget"));
+        assertEquals(1, exported.getJSONObject("phases").getJSONObject("NODES_WITHOUT_SERVERS").getInt("acted"));
+
+        JSONObject executor = json.getJSONObject("executor");
+        for (String counter : Arrays.asList("queueLength", "activeCount", "completedCount", "virtual")) {
+            assertTrue(executor.toString(), executor.has(counter));
+        }
+    }
+
+    @Test
+    public void reclaimExcessPoolPorts() throws Exception {
+        JCloudsSlaveTemplate template =
+                j.dummySlaveTemplate(SlaveOptions.builder().portPoolSize(1).build(), "label");
+        JCloudsCloud cloud = j.dummyCloud(template);
+        cloud.setCleanfreq(2);
+        Openstack os = cloud.getOpenstack();
+
+        List<Port> ports = new ArrayList<>();
+        for (String id : Arrays.asList("kept", "excess")) {
+            Port port = mock(Port.class);
+            when(port.getId()).thenReturn(id);
+            when(port.getNetworkId()).thenReturn("net");
+            ports.add(port);
+        }
+        String owner = PortPool.getOwner(cloud.name, template.getName());
+        when(os.getFreePoolPorts()).thenReturn(Collections.singletonMap(owner, ports));
+
+        TimeUnit.SECONDS.sleep(3); // 3 seconds in order to go over cleanFreq
+        j.triggerOpenstackSlaveCleanup();
+
+        verify(os).destroyPort("excess");
+        verify(os, never()).destroyPort("kept");
+        CleanupStatistics.PhaseStatistics phase =
+                cloud.getCleanupStatistics().getPhase(CleanupStatistics.Phase.POOL_PORTS);
+        assertEquals(2, phase.getExamined());
+        assertEquals(1, phase.getActed());
+    }
+
+    @Test
+    public void slowCloudDoesNotDelayOthers() throws Exception {
+        JCloudsCloud fast = j.dummyCloud();
+        JCloudsCloud slow = new PluginTestRule.MockJCloudsCloud("slow", j.defaultSlaveOptions());
+        JCloudsCloud failing = new PluginTestRule.MockJCloudsCloud("failing", j.defaultSlaveOptions());
+        j.jenkins.clouds.add(slow);
+        j.jenkins.clouds.add(failing);
+        for (JCloudsCloud cloud : Arrays.asList(fast, slow, failing)) {
+            cloud.setCleanfreq(1);
+        }
+
+        OneShotEvent unblock = new OneShotEvent();
+        when(slow.getOpenstack().getRunningNodes()).thenAnswer(invocation -> {
+            unblock.block();
+            return emptyList();
+        });
+        when(failing.getOpenstack().getRunningNodes()).thenThrow(new IllegalStateException("Cloud unavailable"));
+        when(fast.getOpenstack().getRunningNodes()).thenReturn(emptyList());
+
+        JCloudsCleanupThread cleanup = j.jenkins.getExtensionList(AsyncPeriodicWork.class)
+                .get(JCloudsCleanupThread.class);
+        cleanup.execute(TaskListener.NULL);
+
+        try {
+            // Fast cloud keeps being reconciled while the slow one is stuck in its first cycle
+            verify(fast.getOpenstack(), timeout(10000).atLeast(3)).getRunningNodes();
+            verify(slow.getOpenstack()).getRunningNodes();
+            assertNotNull(fast.getCleanupStatistics());
+            assertNull(slow.getCleanupStatistics());
+
+            // Config change reschedules, but does not start a parallel cycle of the stuck cloud
+            slow.setCleanfreq(2);
+            cleanup.execute(TaskListener.NULL);
+            Thread.sleep(3000);
+            verify(slow.getOpenstack()).getRunningNodes();
+        } finally {
+            unblock.signal();
+        }
+
+        verify(slow.getOpenstack(), timeout(10000).atLeast(2)).getRunningNodes();
+        assertNotNull(failing.getCleanupStatistics());
+    }
+
     @Test
     @Issue("jenkinsci/openstack-cloud-plugin#149")
     public void doNotTerminateNodeThatIsBeingProvisioned() throws Exception {
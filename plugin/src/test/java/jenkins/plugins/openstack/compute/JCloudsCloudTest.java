@@ -10,6 +10,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
@@ -155,7 +156,17 @@ public class JCloudsCloudTest {
                         LauncherFactory.JNLP.JNLP,
                         null,
                         4,
-                        false));
+                        false,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null));
         JCloudsCloud cloud = new JCloudsCloud(
                 "openstack",
                 "endPointUrl",
@@ -180,7 +191,17 @@ public class JCloudsCloudTest {
                         new LauncherFactory.SSH("cid"),
                         null,
                         9,
-                        false),
+                        false,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        null),
                 Collections.singletonList(template),
                 openstackAuth);
         j.jenkins.clouds.add(cloud);
@@ -393,6 +414,39 @@ public class JCloudsCloudTest {
         }
     }
 
+    @Test
+    public void indexComputersByCloudAndTemplate() throws Exception {
+        JCloudsSlaveTemplate foo = j.dummySlaveTemplate("foo");
+        JCloudsSlaveTemplate bar = j.dummySlaveTemplate("bar");
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(foo, bar));
+        cloud.setCleanfreq(120); // to be sure not runned during test
+
+        JCloudsSlave fooSlave = j.provision(cloud, "foo");
+        JCloudsSlave barSlave = j.provision(cloud, "bar");
+
+        assertEquals(2, JCloudsComputer.getAll().size());
+        assertEquals(2, JCloudsComputer.getAll(cloud.name).size());
+        assertEquals(
+                Collections.singletonList(fooSlave.getComputer()), JCloudsComputer.getAll(cloud.name, foo.getName()));
+        assertEquals(
+                Collections.singletonList(barSlave.getComputer()), JCloudsComputer.getAll(cloud.name, bar.getName()));
+        assertEquals(Collections.emptyList(), JCloudsComputer.getAll("no-such-cloud"));
+
+        // Same once rescanned after the configuration is reloaded
+        ComputerRegistry.get().invalidate();
+        assertEquals(
+                Collections.singletonList(fooSlave.getComputer()), JCloudsComputer.getAll(cloud.name, foo.getName()));
+        assertEquals(2, JCloudsComputer.getAll(cloud.name).size());
+
+        fooSlave.getComputer().deleteSlave();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!JCloudsComputer.getAll(cloud.name, foo.getName()).isEmpty()) {
+            assertTrue("Computer not removed", System.currentTimeMillis() < deadline);
+            Thread.sleep(100);
+        }
+        assertEquals(Collections.singletonList(barSlave.getComputer()), JCloudsComputer.getAll(cloud.name));
+    }
+
     @Test
     @Issue("JENKINS-46541")
     public void createsNewOpenstackInstanceAfterCacheExpires() throws Exception {
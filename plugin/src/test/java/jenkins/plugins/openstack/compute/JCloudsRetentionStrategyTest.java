@@ -5,6 +5,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 import hudson.Functions;
 import hudson.model.Computer;
@@ -14,9 +16,11 @@ import hudson.model.User;
 import hudson.slaves.ComputerListener;
 import hudson.slaves.OfflineCause;
 import hudson.util.OneShotEvent;
+import java.io.File;
 import java.util.List;
 import jenkins.model.Jenkins;
 import jenkins.plugins.openstack.PluginTestRule;
+import jenkins.plugins.openstack.compute.internal.Openstack;
 import jenkins.plugins.openstack.compute.slaveopts.LauncherFactory;
 import org.jenkinsci.plugins.cloudstats.ProvisioningActivity;
 import org.junit.Assume;
@@ -64,6 +68,61 @@ public class JCloudsRetentionStrategyTest {
         assertTrue("Slave should be scheduled for deletion", computer.isPendingDelete());
     }
 
+    @Test
+    public void parkIdleSlaves() throws Exception {
+        JCloudsSlaveTemplate template = new JCloudsSlaveTemplate(
+                "template", "label", SlaveOptions.builder().retentionTime(1).parkLimit(1).build());
+
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(template));
+        cloud.setCleanfreq(120); // dont run during test
+        Openstack os = cloud.getOpenstack();
+        JCloudsSlave parked = j.provision(cloud, "label");
+        JCloudsSlave deleted = j.provision(cloud, "label");
+
+        checkAfter(parked.getComputer(), 1000 * 61);
+        assertTrue("Slave should be parked", parked.getComputer().isParked());
+        assertFalse(parked.getComputer().isPendingDelete());
+        verify(os, timeout(5000)).parkServer(parked.getServerId(), false);
+
+        checkAfter(deleted.getComputer(), 1000 * 61);
+        assertFalse("Park limit exceeded", deleted.getComputer().isParked());
+        assertTrue(deleted.getComputer().isPendingDelete());
+
+        assertTrue(template.unpark());
+        assertFalse(parked.getComputer().isParked());
+        assertFalse("Nothing more to unpark", template.unpark());
+        verify(os, timeout(5000)).unparkServer(parked.getServerId());
+    }
+
+    @Test
+    public void parkedSlaveSurvivesRestart() throws Exception {
+        JCloudsSlaveTemplate template = new JCloudsSlaveTemplate(
+                "template", "label", SlaveOptions.builder().retentionTime(1).parkLimit(1).build());
+
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(template));
+        cloud.setCleanfreq(120); // dont run during test
+        Openstack os = cloud.getOpenstack();
+        JCloudsSlave slave = j.provision(cloud, "label");
+
+        checkAfter(slave.getComputer(), 1000 * 61);
+        verify(os, timeout(5000)).parkServer(slave.getServerId(), false);
+
+        // Load the persisted node into a fresh computer the way it happens on restart
+        JCloudsSlave loaded = (JCloudsSlave) Jenkins.XSTREAM2.fromXML(
+                new File(j.jenkins.getRootDir(), "nodes/" + slave.getNodeName() + "/config.xml"));
+        j.jenkins.removeNode(slave);
+        j.jenkins.addNode(loaded);
+
+        JCloudsComputer computer = loaded.getComputer();
+        assertTrue("Slave should stay parked", computer.isParked());
+        assertFalse(computer.isPendingDelete());
+        assertEquals(slave.getParkedTime(), loaded.getParkedTime());
+
+        assertTrue(template.unpark());
+        assertEquals(0, loaded.getParkedTime());
+        verify(os, timeout(5000)).unparkServer(slave.getServerId());
+    }
+
     /**
      * There are several async operations taking place here:
      *
@@ -17,17 +17,22 @@ import hudson.util.FormValidation;
 import java.io.ByteArrayInputStream;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import jenkins.plugins.openstack.PluginTestRule;
+import jenkins.plugins.openstack.compute.internal.FipScope;
 import jenkins.plugins.openstack.compute.internal.Openstack;
 import jenkins.plugins.openstack.compute.slaveopts.BootSource;
 import jenkins.plugins.openstack.compute.slaveopts.BootSource.VolumeSnapshot;
 import jenkins.plugins.openstack.compute.slaveopts.LauncherFactory;
 import org.htmlunit.html.HtmlForm;
+import org.jenkinsci.plugins.cloudstats.ProvisioningActivity;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -38,7 +43,9 @@ import org.openstack4j.model.compute.BlockDeviceMappingCreate;
 import org.openstack4j.model.compute.NetworkCreate;
 import org.openstack4j.model.compute.Server;
 import org.openstack4j.model.compute.builder.ServerCreateBuilder;
+import org.openstack4j.model.image.v2.Image;
 import org.openstack4j.model.network.Network;
+import org.openstack4j.model.network.Port;
 import org.openstack4j.openstack.compute.domain.NovaBlockDeviceMappingCreate;
 
 public class JCloudsSlaveTemplateTest {
@@ -136,6 +143,23 @@ public class JCloudsSlaveTemplateTest {
                 template.getRawSlaveOptions());
     }
 
+    @Test
+    public void memoizeEffectiveOptions() {
+        JCloudsSlaveTemplate template = j.dummySlaveTemplate("label");
+        JCloudsCloud cloud = j.dummyCloud(template);
+
+        SlaveOptions effective = template.getEffectiveSlaveOptions();
+        assertSame(effective, template.getEffectiveSlaveOptions());
+        assertSame(cloud.getEffectiveSlaveOptions(), cloud.getEffectiveSlaveOptions());
+
+        // Reconfigured cloud
+        JCloudsCloud reconfigured = j.dummyCloud(
+                cloud.getRawSlaveOptions().getBuilder().instanceCap(3).build(), template);
+        assertNotSame(effective, template.getEffectiveSlaveOptions());
+        assertEquals(3, (int) template.getEffectiveSlaveOptions().getInstanceCap());
+        assertSame(reconfigured.getEffectiveSlaveOptions(), reconfigured.getEffectiveSlaveOptions());
+    }
+
     @Test
     public void replaceUserData() throws Exception {
         SlaveOptions opts = j.defaultSlaveOptions();
@@ -207,6 +231,214 @@ public class JCloudsSlaveTemplateTest {
         assertThat(networks.size(), equalTo(2));
     }
 
+    @Test
+    public void recycleSingleUseServer() throws Exception {
+        SlaveOptions sshOpts = dummySlaveOptions()
+                .getBuilder()
+                .retentionTime(0)
+                .recycle(true)
+                .launcherFactory(new LauncherFactory.SSH(j.dummySshCredentials("sshid")))
+                .build();
+        JCloudsSlaveTemplate ssh = new JCloudsSlaveTemplate("ssh", "label", sshOpts);
+        JCloudsSlaveTemplate jnlp = new JCloudsSlaveTemplate(
+                "jnlp",
+                "label",
+                sshOpts.getBuilder().launcherFactory(LauncherFactory.JNLP.JNLP).build());
+        JCloudsCloud cloud = j.configureSlaveProvisioningWithFloatingIP(j.dummyCloud(ssh, jnlp));
+        Openstack os = cloud.getOpenstack();
+        when(os.rebuildServer(anyString(), anyString(), anyString(), anyMap())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return j.mockServer()
+                    .name((String) args[2])
+                    .metadata((Map<String, String>) args[3])
+                    .get();
+        });
+
+        JCloudsSlave used = ssh.provisionSlave(cloud, new ProvisioningActivity.Id(cloud.name, ssh.getName()));
+        j.jenkins.addNode(used);
+        JCloudsComputer computer = used.getComputer();
+        Whitebox.setInternalState(computer, "recyclable", true);
+        computer.setPendingDelete(true);
+        CompletableFuture<Long> readiness = ReadinessCallback.getReport(used.getNodeName());
+
+        computer.deleteSlave();
+        assertNull(j.jenkins.getNode(used.getNodeName()));
+        assertNotSame("Readiness forgotten", readiness, ReadinessCallback.getReport(used.getNodeName()));
+        ReadinessCallback.forget(used.getNodeName());
+        verify(os, never()).destroyServer(any(Server.class));
+
+        List<JCloudsComputer> computers = JCloudsComputer.getAll();
+        assertEquals(1, computers.size());
+        JCloudsSlave recycled = computers.get(0).getNode();
+        assertNotNull(recycled);
+        assertNotEquals(used.getNodeName(), recycled.getNodeName());
+        assertNotEquals(used.getId(), recycled.getId());
+
+        // Rebuilt from the image the template boots from
+        ArgumentCaptor<Map> metadata = ArgumentCaptor.forClass(Map.class);
+        verify(os).rebuildServer(
+                eq(used.getServerId()), eq("dummyImageId"), eq(recycled.getNodeName()), metadata.capture());
+        ServerScope scope = ServerScope.parse((String) metadata.getValue().get(ServerScope.METADATA_KEY));
+        assertEquals(recycled.getNodeName(), ((ServerScope.Node) scope).getName());
+        assertEquals("dummyImageId", metadata.getValue().get(BootSource.Image.OPENSTACK_BOOTSOURCE_IMAGE_ID_KEY));
+
+        JCloudsSlave jnlpSlave = new JCloudsSlave(
+                new ProvisioningActivity.Id(cloud.name, jnlp.getName()),
+                j.mockServer().name("jnlp-0").get(),
+                "label",
+                jnlp.getEffectiveSlaveOptions());
+        assertNull("JNLP agents are not recycled", jnlp.recycle(jnlpSlave));
+    }
+
+    @Test
+    public void bakeImage() throws Exception {
+        JCloudsSlaveTemplate template = j.dummySlaveTemplate(
+                SlaveOptions.builder().bakeInterval(24).bakeRetain(1).build(), "label");
+        JCloudsCloud cloud = j.configureSlaveProvisioningWithFloatingIP(j.dummyCloud(template));
+        Openstack os = cloud.getOpenstack();
+        when(os.getServerConsoleOutput(anyString(), anyInt()))
+                .thenReturn("Cloud-init v. 20.1 finished at Mon, 19 Oct 2026 10:00:00 +0000. Up 42.00 seconds");
+        when(os.bakeImage(anyString(), anyString())).thenReturn("baked");
+        Image baked = mockImage("baked");
+        when(os.getImage("baked")).thenReturn(baked);
+        when(os.getBakedImages(anyString())).thenReturn(Arrays.asList(mockImage("oldest"), mockImage("older"), baked));
+
+        assertTrue(template.isBakeDue());
+        template.bake().get(5, TimeUnit.SECONDS);
+        assertFalse(template.isBakeDue());
+        verify(os).destroyServer(any(Server.class));
+
+        ArgumentCaptor<ServerCreateBuilder> captor = ArgumentCaptor.forClass(ServerCreateBuilder.class);
+        verify(os).bootAndWaitActive(captor.capture(), any(Integer.class));
+        assertEquals("dummyImageId", captor.getValue().build().getImageRef());
+        ServerScope scope = ServerScope.parse(captor.getValue().build().getMetaData().get(ServerScope.METADATA_KEY));
+        assertThat(scope, instanceOf(ServerScope.Time.class));
+
+        verify(os).destroyImage("oldest");
+        verify(os, never()).destroyImage("older");
+        verify(os, never()).destroyImage("baked");
+
+        template.provisionServer(null, null);
+        verify(os, times(2)).bootAndWaitActive(captor.capture(), any(Integer.class));
+        assertEquals("baked", captor.getValue().build().getImageRef());
+
+        // Baked image is looked up when provisioning right after restart
+        Whitebox.setInternalState(template, "bakedImageId", null);
+        Whitebox.setInternalState(template, "bakedKnown", false);
+        template.provisionServer(null, null);
+        verify(os, times(3)).bootAndWaitActive(captor.capture(), any(Integer.class));
+        assertEquals("baked", captor.getValue().build().getImageRef());
+    }
+
+    private static Image mockImage(String id) {
+        Image image = mock(Image.class);
+        when(image.getId()).thenReturn(id);
+        when(image.getStatus()).thenReturn(Image.ImageStatus.ACTIVE);
+        when(image.getCreatedAt()).thenReturn(new Date());
+        return image;
+    }
+
+    @Test
+    public void bootWithPoolPorts() {
+        final SlaveOptions opts = dummySlaveOptions()
+                .getBuilder()
+                .networkId("foo,bar")
+                .securityGroups("sg")
+                .portPoolSize(2)
+                .build();
+        final JCloudsSlaveTemplate instance = j.dummySlaveTemplate(opts, "a");
+        final JCloudsCloud cloud = j.configureSlaveProvisioningWithFloatingIP(j.dummyCloud(instance));
+        final Openstack mockOs = cloud.getOpenstack();
+
+        Network n1 = mock(Network.class);
+        when(n1.getName()).thenReturn("foo");
+        when(n1.getId()).thenReturn("foo");
+        Network n2 = mock(Network.class);
+        when(n2.getName()).thenReturn("bar");
+        when(n2.getId()).thenReturn("bar");
+        Map<String, Network> nets = new HashMap<>();
+        nets.put(n1.getId(), n1);
+        nets.put(n2.getId(), n2);
+        doReturn(nets).when(mockOs).getNetworks(any());
+
+        doReturn(singletonList("sg-id")).when(mockOs).getSecurityGroupIds(any());
+
+        Port p1 = mock(Port.class);
+        when(p1.getId()).thenReturn("p1");
+        when(p1.getNetworkId()).thenReturn("foo");
+        when(p1.getSecurityGroups()).thenReturn(singletonList("sg-id"));
+        Port p2 = mock(Port.class);
+        when(p2.getId()).thenReturn("p2");
+        when(p2.getNetworkId()).thenReturn("bar");
+        when(p2.getSecurityGroups()).thenReturn(singletonList("sg-id"));
+        doReturn(Arrays.asList(p1, p2)).when(mockOs).getFreePoolPorts(anyString());
+
+        // Pool does not serve all the networks
+        assertNull(PortPool.claim(mockOs, "owner", Arrays.asList("foo", "baz")));
+
+        // Ports are used once verified against the template
+        instance.replenishPortPool();
+        instance.provisionServer(null, null);
+
+        ArgumentCaptor<ServerCreateBuilder> captor = ArgumentCaptor.forClass(ServerCreateBuilder.class);
+        verify(mockOs, times(1)).bootAndWaitActive(captor.capture(), any(Integer.class));
+        List<? extends NetworkCreate> networks = captor.getValue().build().getNetworks();
+        assertThat(networks.size(), equalTo(2));
+        // Ports are passed instead of networks
+        assertNull(networks.get(0).getId());
+        assertNull(networks.get(1).getId());
+        assertNull(captor.getValue().build().getSecurityGroups());
+    }
+
+    @Test
+    public void replenishPortPool() {
+        final SlaveOptions opts = dummySlaveOptions()
+                .getBuilder()
+                .networkId("foo")
+                .securityGroups("sg")
+                .portPoolSize(2)
+                .build();
+        final JCloudsSlaveTemplate instance = j.dummySlaveTemplate(opts, "a");
+        final JCloudsCloud cloud = j.configureSlaveProvisioningWithFloatingIP(j.dummyCloud(instance));
+        final Openstack mockOs = cloud.getOpenstack();
+
+        Network net = mock(Network.class);
+        when(net.getName()).thenReturn("foo");
+        when(net.getId()).thenReturn("foo");
+        doReturn(Collections.singletonMap("foo", net)).when(mockOs).getNetworks(any());
+        doReturn(singletonList("sg-id")).when(mockOs).getSecurityGroupIds(any());
+
+        Port fresh = mock(Port.class);
+        when(fresh.getId()).thenReturn("fresh");
+        when(fresh.getNetworkId()).thenReturn("foo");
+        when(fresh.getSecurityGroups()).thenReturn(singletonList("sg-id"));
+        Port otherNetwork = mock(Port.class);
+        when(otherNetwork.getId()).thenReturn("otherNetwork");
+        when(otherNetwork.getNetworkId()).thenReturn("removed");
+        when(otherNetwork.getSecurityGroups()).thenReturn(singletonList("sg-id"));
+        Port otherGroups = mock(Port.class);
+        when(otherGroups.getId()).thenReturn("otherGroups");
+        when(otherGroups.getNetworkId()).thenReturn("foo");
+        when(otherGroups.getSecurityGroups()).thenReturn(singletonList("removed-sg-id"));
+        doReturn(Arrays.asList(fresh, otherNetwork, otherGroups)).when(mockOs).getFreePoolPorts(anyString());
+
+        instance.replenishPortPool();
+
+        String owner = PortPool.getOwner(cloud.name, instance.getName());
+        verify(mockOs).destroyPort("otherNetwork");
+        verify(mockOs).destroyPort("otherGroups");
+        verify(mockOs, never()).destroyPort("fresh");
+        verify(mockOs).createPoolPorts(owner, "foo", singletonList("sg-id"), 1);
+
+        // Full pool is not looked up again
+        instance.replenishPortPool();
+        verify(mockOs, times(1)).getFreePoolPorts(anyString());
+        verify(mockOs, times(1)).getSecurityGroupIds(any());
+
+        // Owner of other cloud sharing the prefix
+        assertEquals("openstack:x", PortPool.getCloudName(PortPool.getOwner("openstack:x", instance.getName())));
+    }
+
     @Test
     public void bootFromVolumeSnapshot() {
         final String volumeSnapshotName = "MyVolumeSnapshot";
@@ -302,6 +534,10 @@ public class JCloudsSlaveTemplateTest {
         assertThat(actualVolumeDescription, containsString(actualServerName));
         assertThat(actualVolumeDescription, containsString(actual.getId()));
         assertThat(actualVolumeDescription, containsString(volumeSnapshotName));
+        // Marked as ours, so it can be deleted should it leak
+        assertThat(
+                FipScope.getServerId(mockOs.instanceUrl(), mockOs.instanceFingerprint(), actualVolumeDescription),
+                equalTo(actual.getId()));
     }
 
     @SuppressWarnings("unchecked")
@@ -3,22 +3,34 @@ package jenkins.plugins.openstack.compute;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import hudson.model.JDK;
 import hudson.model.Node;
 import hudson.slaves.EnvironmentVariablesNodeProperty;
 import hudson.slaves.NodeProperty;
+import hudson.tools.ToolLocationNodeProperty;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import jenkins.model.Jenkins;
 import jenkins.plugins.openstack.PluginTestRule;
+import jenkins.plugins.openstack.compute.internal.Openstack;
 import org.jenkinsci.plugins.cloudstats.ProvisioningActivity;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
 import org.openstack4j.model.compute.Address;
 import org.openstack4j.model.compute.Addresses;
 import org.openstack4j.model.compute.Server;
@@ -163,6 +175,84 @@ public class JCloudsSlaveTest {
         assertIsEnvVarNPContaining(actualNP3, expectedEnvVars);
     }
 
+    @Test
+    public void copyTemplateNodePropertiesFromPrototypes() {
+        ToolLocationNodeProperty tools = new ToolLocationNodeProperty(new ToolLocationNodeProperty.ToolLocation(
+                j.jenkins.getDescriptorByType(JDK.DescriptorImpl.class), "jdk", "/opt/jdk"));
+        EnvironmentVariablesNodeProperty envVars =
+                new EnvironmentVariablesNodeProperty(new EnvironmentVariablesNodeProperty.Entry("FOO", "bar"));
+        NodeProperty<Node> other = PluginTestRule.mkNodeProperty(1);
+
+        for (NodeProperty<?> original : Arrays.asList(tools, envVars, other)) {
+            NodeProperty<?> copy = NodePropertyPrototypes.copy(original);
+            assertThat(copy, not(sameInstance(original)));
+            assertThat(copy, not(sameInstance(NodePropertyPrototypes.copy(original))));
+            assertThat(Jenkins.XSTREAM.toXML(copy), equalTo(Jenkins.XSTREAM.toXML(original)));
+        }
+    }
+
+    @Test
+    public void serveLiveServerDetailsFromInventory() throws Exception {
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP("label");
+        JCloudsSlave first = j.provision(cloud, "label");
+        JCloudsSlave second = j.provision(cloud, "label");
+
+        // Servers looked up one by one would be reported in error
+        Openstack os = cloud.getOpenstack();
+        Server inError = j.mockServer().status(Server.Status.ERROR).get();
+        doReturn(inError).when(os).getServerById(anyString());
+
+        for (JCloudsSlave node : Arrays.asList(first, second)) {
+            Map<String, String> details = node.getLiveOpenstackServerDetails();
+            assertThat(details.get("Status"), equalTo(String.valueOf(Server.Status.ACTIVE)));
+        }
+        verify(os, atLeastOnce()).getRunningNodes();
+    }
+
+    @Test
+    public void serveLiveDetailsOfServerNotRunning() throws Exception {
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP("label");
+        JCloudsSlave node = j.provision(cloud, "label");
+
+        // Not listed among the running ones
+        Openstack os = cloud.getOpenstack();
+        Server shutoff = j.mockServer().status(Server.Status.SHUTOFF).get();
+        doReturn(Collections.emptyList()).when(os).getRunningNodes();
+        doReturn(shutoff).when(os).getServerById(node.getServerId());
+
+        Map<String, String> details = node.getLiveOpenstackServerDetails();
+        assertThat(details.get("Status"), equalTo(String.valueOf(Server.Status.SHUTOFF)));
+    }
+
+    @Test
+    public void persistCompactForm() throws Exception {
+        SlaveOptions compactOpts = SlaveOptions.builder().compactPersistence(true).build();
+        JCloudsSlaveTemplate template = j.dummySlaveTemplate(compactOpts, "label");
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(template));
+        JCloudsSlave slave = j.provision(cloud, "label");
+
+        String compact = Jenkins.XSTREAM2.toXML(slave);
+        Whitebox.setInternalState(
+                template,
+                "slaveOptions",
+                compactOpts.getBuilder().compactPersistence(false).build());
+        String full = Jenkins.XSTREAM2.toXML(slave);
+        Whitebox.setInternalState(template, "slaveOptions", compactOpts);
+        assertThat(compact.length(), lessThan(full.length()));
+
+        JCloudsSlave loaded = (JCloudsSlave) Jenkins.XSTREAM2.fromXML(compact);
+        assertThat(loaded.getNodeName(), equalTo(slave.getNodeName()));
+        assertThat(loaded.getId(), equalTo(slave.getId()));
+        assertThat(loaded.getServerId(), equalTo(slave.getServerId()));
+        assertThat(loaded.getLabelString(), equalTo(slave.getLabelString()));
+        assertThat(loaded.getCreatedTime(), equalTo(slave.getCreatedTime()));
+        assertThat(loaded.getPublicAddress(), equalTo(slave.getPublicAddress()));
+        assertThat(loaded.getSlaveOptions(), equalTo(slave.getSlaveOptions()));
+        assertIsEnvVarNPContaining(
+                loaded.getNodeProperties().get(EnvironmentVariablesNodeProperty.class),
+                ImmutableMap.of(EXPECTED_IP_ADDRESS_ENV_VAR_NAME, slave.getPublicAddress()));
+    }
+
     private static void assertIsEnvVarNPContaining(
             final NodeProperty<?> actual, final Map<String, String> expectedEnvVars) {
         assertThat(actual, instanceOf(EnvironmentVariablesNodeProperty.class));
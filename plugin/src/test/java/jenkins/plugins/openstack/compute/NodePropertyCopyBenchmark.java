@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import hudson.model.JDK;
+import hudson.slaves.EnvironmentVariablesNodeProperty;
+import hudson.slaves.NodeProperty;
+import hudson.tools.ToolLocationNodeProperty;
+import java.util.Arrays;
+import java.util.List;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.benchmark.jmh.JmhBenchmarkState;
+import jenkins.model.Jenkins;
+import jenkins.plugins.openstack.PluginTestRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Copying template node properties for a new node, through XStream as it used to be and through prototypes.
+ */
+@JmhBenchmark
+public class NodePropertyCopyBenchmark {
+
+    public static class TemplateProperties extends JmhBenchmarkState {
+        private List<NodeProperty<?>> properties;
+
+        @Override
+        public void setup() {
+            JDK.DescriptorImpl jdk = getJenkins().getDescriptorByType(JDK.DescriptorImpl.class);
+            properties = Arrays.asList(
+                    new ToolLocationNodeProperty(
+                            new ToolLocationNodeProperty.ToolLocation(jdk, "jdk11", "/opt/jdk11"),
+                            new ToolLocationNodeProperty.ToolLocation(jdk, "jdk17", "/opt/jdk17")),
+                    new EnvironmentVariablesNodeProperty(
+                            new EnvironmentVariablesNodeProperty.Entry("JAVA_OPTS", "-Xmx2g"),
+                            new EnvironmentVariablesNodeProperty.Entry("MAVEN_OPTS", "-Xmx1g"),
+                            new EnvironmentVariablesNodeProperty.Entry("LANG", "C.UTF-8")),
+                    PluginTestRule.mkNodeProperty(1));
+        }
+    }
+
+    @Benchmark
+    public void xstream(TemplateProperties state, Blackhole bh) {
+        for (NodeProperty<?> property : state.properties) {
+            bh.consume(Jenkins.XSTREAM.fromXML(Jenkins.XSTREAM.toXML(property)));
+        }
+    }
+
+    @Benchmark
+    public void prototypes(TemplateProperties state, Blackhole bh) {
+        for (NodeProperty<?> property : state.properties) {
+            bh.consume(NodePropertyPrototypes.copy(property));
+        }
+    }
+}
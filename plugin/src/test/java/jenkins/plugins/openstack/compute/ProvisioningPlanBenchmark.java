@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute;
+
+import static org.mockito.Mockito.doReturn;
+
+import hudson.model.Label;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.benchmark.jmh.JmhBenchmarkState;
+import jenkins.plugins.openstack.PluginTestRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Planning which templates to provision from, with effective options computed on every call as they used to be and
+ * memoized. Run with the GC profiler to compare the allocations.
+ */
+@JmhBenchmark
+public class ProvisioningPlanBenchmark {
+
+    public static class CloudWithTemplates extends JmhBenchmarkState {
+        private static final int TEMPLATES = 20;
+
+        private JCloudsCloud cloud;
+        private Label label;
+
+        @Override
+        public void setup() {
+            List<JCloudsSlaveTemplate> templates = new ArrayList<>();
+            for (int i = 0; i < TEMPLATES; i++) {
+                SlaveOptions opts = SlaveOptions.builder()
+                        .instanceCap(5)
+                        .hardwareId("hw" + i)
+                        .networkId("net" + i)
+                        .build();
+                templates.add(new JCloudsSlaveTemplate("template" + i, "label" + i + " common", opts));
+            }
+            cloud = new PluginTestRule.MockJCloudsCloud(templates.toArray(new JCloudsSlaveTemplate[0]));
+            getJenkins().clouds.add(cloud);
+            doReturn(Collections.emptyList()).when(cloud.getOpenstack()).getRunningNodes();
+            label = Label.get("common");
+        }
+    }
+
+    @Benchmark
+    public void recomputedOptions(CloudWithTemplates state, Blackhole bh) {
+        SlaveOptions cloudOptions =
+                JCloudsCloud.DescriptorImpl.getDefaultOptions().override(state.cloud.getRawSlaveOptions());
+        for (JCloudsSlaveTemplate template : state.cloud.getTemplates()) {
+            bh.consume(cloudOptions.override(template.getRawSlaveOptions()));
+        }
+    }
+
+    @Benchmark
+    public void memoizedOptions(CloudWithTemplates state, Blackhole bh) {
+        for (JCloudsSlaveTemplate template : state.cloud.getTemplates()) {
+            bh.consume(template.getEffectiveSlaveOptions());
+        }
+    }
+
+    @Benchmark
+    public void plan(CloudWithTemplates state, Blackhole bh) {
+        bh.consume(state.cloud.getAvailableTemplateProvider(state.label, 50));
+    }
+}
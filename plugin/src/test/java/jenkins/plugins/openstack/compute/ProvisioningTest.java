@@ -7,8 +7,10 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.iterableWithSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.*;
@@ -17,10 +19,12 @@ import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import hudson.ExtensionList;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
 import hudson.model.Label;
@@ -28,9 +32,11 @@ import hudson.model.Node;
 import hudson.model.TaskListener;
 import hudson.plugins.sshslaves.SSHLauncher;
 import hudson.slaves.Cloud;
+import hudson.slaves.EnvironmentVariablesNodeProperty;
 import hudson.slaves.NodeProvisioner;
 import hudson.slaves.NodeProvisioner.PlannedNode;
 import hudson.slaves.OfflineCause;
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.Arrays;
@@ -40,14 +46,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
 import jenkins.model.Jenkins;
 import jenkins.plugins.openstack.PluginTestRule;
 import jenkins.plugins.openstack.PluginTestRule.NetworkAddress;
 import jenkins.plugins.openstack.compute.internal.Openstack;
 import jenkins.plugins.openstack.compute.slaveopts.LauncherFactory;
+import net.sf.json.JSONObject;
 import org.hamcrest.Matchers;
 import org.htmlunit.HttpMethod;
 import org.htmlunit.WebRequest;
@@ -89,6 +98,20 @@ public class ProvisioningTest {
                 "node:" + server.getName() + ":" + s.getId().getFingerprint(),
                 server.getMetadata().get(ServerScope.METADATA_KEY));
 
+        LaunchStatistics.Launch launch = ((JCloudsComputer) node.toComputer()).getLastLaunch();
+        assertNotNull(launch);
+        assertThat(launch.getTimeToSuccess(), greaterThanOrEqualTo(0L));
+        LaunchStatistics stats = cloud.getTemplates().get(0).getLaunchStatistics();
+        assertThat(stats.getSucceeded(), greaterThanOrEqualTo(1L));
+        assertThat(stats.getAttempts(), greaterThanOrEqualTo((long) launch.getAttempts()));
+        JSONObject exported = j.createWebClient()
+                .getJSON("cloud/openstack/api/json?depth=2")
+                .getJSONObject()
+                .getJSONArray("templates")
+                .getJSONObject(0);
+        assertEquals(cloud.getTemplates().get(0).getName(), exported.getString("name"));
+        assertEquals(stats.getSucceeded(), exported.getJSONObject("launchStatistics").getLong("succeeded"));
+
         node.toComputer().doDoDelete();
         if (j.jenkins.getComputer(node.getNodeName()) != null) {
             Thread.sleep(100);
@@ -100,6 +123,16 @@ public class ProvisioningTest {
         assertThat(j.buildAndAssertSuccess(p).getBuiltOn(), Matchers.instanceOf(JCloudsSlave.class));
     }
 
+    @Test
+    public void backOffLaunchRetries() {
+        for (int attempt = 1; attempt < 100; attempt++) {
+            long max = Math.min(10_000, 500L << Math.min(attempt - 1, 20));
+            long delay = JCloudsLauncher.getRetryDelay(attempt, 500, 10_000);
+            assertThat(delay, greaterThanOrEqualTo(max / 2));
+            assertThat(delay, lessThanOrEqualTo(max));
+        }
+    }
+
     @Test
     @Issue("https://github.com/jenkinsci/openstack-cloud-plugin/issues/31")
     public void abortProvisioningWhenOpenstackFails() throws Exception {
@@ -142,6 +175,76 @@ public class ProvisioningTest {
         verify(os).destroyServer(eq(server));
     }
 
+    @Test
+    public void detectConnectionTimingOut() throws Exception {
+        SlaveOptions opts = j.defaultSlaveOptions().getBuilder().startTimeout(1000).build();
+        JCloudsSlaveTemplate template = j.dummySlaveTemplate(opts, "label");
+        JCloudsCloud cloud = j.configureSlaveProvisioningWithFloatingIP(j.dummyCloud(template));
+
+        CompletableFuture<JCloudsSlave> future =
+                template.provisionSlaveAsync(cloud, new ProvisioningActivity.Id(cloud.name, template.getName()));
+        try {
+            future.get(1, TimeUnit.MINUTES);
+            fail();
+        } catch (ExecutionException ex) {
+            assertThat(ex.getCause(), instanceOf(JCloudsCloud.ProvisioningFailedException.class));
+            assertThat(ex.getCause().getMessage(), containsString("Failed to connect agent"));
+            assertThat(ex.getCause().getMessage(), containsString("JNLP connection was not established yet"));
+        }
+    }
+
+    @Test
+    public void completeOnceJnlpAgentConnects() throws Exception {
+        SlaveOptions opts = j.defaultSlaveOptions().getBuilder().startTimeout(60_000).build();
+        JCloudsSlaveTemplate template = j.dummySlaveTemplate(opts, "label");
+        JCloudsCloud cloud = j.configureSlaveProvisioningWithFloatingIP(j.dummyCloud(template));
+
+        CompletableFuture<JCloudsSlave> future =
+                template.provisionSlaveAsync(cloud, new ProvisioningActivity.Id(cloud.name, template.getName()));
+        JCloudsComputer computer = waitForComputers(cloud).get(0);
+        assertFalse(future.isDone());
+
+        // Simulate the agent connecting, the node is to be ready well before the next poll
+        ExtensionList.lookupSingleton(LauncherFactory.JNLP.ConnectionListener.class)
+                .onOnline(computer, TaskListener.NULL);
+        assertSame(computer.getNode(), future.get(3, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void discardNodeWhenProvisioningCancelled() throws Exception {
+        SlaveOptions opts = j.defaultSlaveOptions().getBuilder().startTimeout(60_000).build();
+        JCloudsCloud cloud =
+                j.configureSlaveProvisioningWithFloatingIP(j.dummyCloud(j.dummySlaveTemplate(opts, "label")));
+        Openstack os = cloud.getOpenstack();
+
+        PlannedNode pn = cloud.provision(new Cloud.CloudState(Label.get("label"), 0), 1)
+                .iterator()
+                .next();
+        waitForComputers(cloud);
+        assertTrue(pn.future.cancel(true));
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!os.getRunningNodes().isEmpty() || !JCloudsComputer.getAll(cloud.name).isEmpty()) {
+            assertTrue("Node not discarded after cancellation", System.currentTimeMillis() < deadline);
+            Thread.sleep(100);
+        }
+        verify(os).destroyServer(any(Server.class));
+    }
+
+    /**
+     * Wait for nodes being provisioned to be added to Jenkins, as JNLP nodes are for agents to connect.
+     */
+    private static @Nonnull List<JCloudsComputer> waitForComputers(@Nonnull JCloudsCloud cloud)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        List<JCloudsComputer> computers;
+        while ((computers = JCloudsComputer.getAll(cloud.name)).isEmpty()) {
+            assertTrue("No node added to Jenkins in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(100);
+        }
+        return computers;
+    }
+
     @Test
     public void verifyOptionsPropagatedToLauncher() throws Exception {
         LauncherFactory.SSH slaveType = new LauncherFactory.SSH(j.dummySshCredentials("credid"), "java");
@@ -173,6 +276,31 @@ public class ProvisioningTest {
         assertEquals(42, (int) slave.getSlaveOptions().getRetentionTime());
     }
 
+    @Test
+    public void refreshAccessAddressOnlyWhenAsked() throws Exception {
+        LauncherFactory.SSH factory = new LauncherFactory.SSH(j.dummySshCredentials("credid"), "java");
+        SlaveOptions opts = j.defaultSlaveOptions().getBuilder().launcherFactory(factory).build();
+        JCloudsCloud cloud = j.configureSlaveLaunchingWithFloatingIP(j.dummyCloud(opts, j.dummySlaveTemplate("label")));
+        JCloudsSlave slave = j.provision(cloud, "label");
+        String address = slave.getPublicAddress();
+        assertNotNull(address);
+
+        Server moved = j.mockServer().withFloatingIpv4("42.42.42.254").get();
+        doReturn(moved).when(cloud.getOpenstack()).getServerById(slave.getServerId());
+
+        assertEquals(address, slave.getPublicAddress());
+        assertFalse(LauncherFactory.JNLP.JNLP.isLauncherOutdated(slave));
+        assertTrue(factory.isLauncherOutdated(slave));
+        assertEquals("42.42.42.254", slave.getPublicAddress());
+        assertFalse(factory.isLauncherOutdated(slave));
+
+        EnvironmentVariablesNodeProperty env = slave.getNodeProperties().get(EnvironmentVariablesNodeProperty.class);
+        assertEquals("42.42.42.254", env.getEnvVars().get("OPENSTACK_PUBLIC_IP"));
+        JCloudsSlave persisted = (JCloudsSlave) Jenkins.XSTREAM2.fromXML(
+                new File(j.jenkins.getRootDir(), "nodes/" + slave.getNodeName() + "/config.xml"));
+        assertEquals("42.42.42.254", persisted.getPublicAddress());
+    }
+
     @Test
     public void doProvision() throws Exception {
         JCloudsSlaveTemplate constrained = j.dummySlaveTemplate(
@@ -320,6 +448,55 @@ public class ProvisioningTest {
         assertEquals(new ServerScope.Node(server.getName()).getValue(), m.get(ServerScope.METADATA_KEY));
     }
 
+    @Test
+    public void reportReadiness() throws Exception {
+        String url = ReadinessCallback.getUrl(j.getURL().toString(), "server-0");
+        CompletableFuture<Long> report = ReadinessCallback.getReport("server-0");
+        JenkinsRule.WebClient wc = j.createWebClient();
+        wc.setThrowExceptionOnFailingStatusCode(false);
+
+        String forged = url.replace("server=server-0", "server=server-1");
+        WebRequest forgedRequest = new WebRequest(new URL(forged), HttpMethod.POST);
+        assertEquals(403, wc.getPage(forgedRequest).getWebResponse().getStatusCode());
+        assertFalse(report.isDone());
+
+        // No crumb
+        assertEquals(200, wc.getPage(new WebRequest(new URL(url), HttpMethod.POST)).getWebResponse().getStatusCode());
+        assertTrue(report.isDone());
+
+        ReadinessCallback.forget("server-0");
+        assertFalse(ReadinessCallback.getReport("server-0").isDone());
+
+        // Token of the forgotten server does not work for a new one of the same name
+        assertNotEquals(url, ReadinessCallback.getUrl(j.getURL().toString(), "server-0"));
+        assertEquals(403, wc.getPage(new WebRequest(new URL(url), HttpMethod.POST)).getWebResponse().getStatusCode());
+        assertFalse(ReadinessCallback.getReport("server-0").isDone());
+        ReadinessCallback.forget("server-0");
+    }
+
+    @Test
+    public void forgetReadinessOfFailedBoot() throws Exception {
+        JCloudsSlaveTemplate template = j.dummySlaveTemplate("label");
+        JCloudsCloud cloud = j.dummyCloud(template);
+        Openstack os = cloud.getOpenstack();
+        CompletableFuture<CompletableFuture<Long>> readiness = new CompletableFuture<>();
+        when(os.bootAndWaitActive(any(ServerCreateBuilder.class), anyInt())).thenAnswer(invocation -> {
+            // Awaited as soon as the user data is rendered
+            String name = ((ServerCreateBuilder) invocation.getArguments()[0]).build().getName();
+            readiness.complete(ReadinessCallback.getReport(name));
+            throw new Openstack.ActionFailed("It is broken, alright!");
+        });
+
+        try {
+            template.provisionServer(null, null);
+            fail();
+        } catch (Openstack.ActionFailed ex) {
+            // Expected
+        }
+
+        assertTrue("Readiness forgotten", readiness.get().isCancelled());
+    }
+
     @Test
     public void timeoutProvisioning() throws Exception {
         JCloudsCloud c = j.dummyCloud(j.dummySlaveTemplate("label"));
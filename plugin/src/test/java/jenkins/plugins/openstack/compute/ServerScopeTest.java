@@ -10,6 +10,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import hudson.model.FreeStyleBuild;
@@ -86,6 +89,13 @@ public class ServerScopeTest {
         assertTrue(new ServerScope.Node(js.getNodeName(), new Id("foo", "bar", "baz")).isOutOfScope(mock));
         assertFalse(new ServerScope.Node(js.getNodeName()).isOutOfScope(mock));
         assertFalse(new ServerScope.Node(js.getNodeName(), id).isOutOfScope(mock));
+
+        // Evaluated against shared snapshot
+        ServerScope.Context context = ServerScope.Context.create();
+        assertTrue(new ServerScope.Node(js.getNodeName() + "nonono").isOutOfScope(mock, context));
+        assertTrue(new ServerScope.Node(js.getNodeName(), new Id("foo", "bar", "baz")).isOutOfScope(mock, context));
+        assertFalse(new ServerScope.Node(js.getNodeName()).isOutOfScope(mock, context));
+        assertFalse(new ServerScope.Node(js.getNodeName(), id).isOutOfScope(mock, context));
     }
 
     @Test
@@ -142,6 +152,33 @@ public class ServerScopeTest {
             bb.signalDone();
             j.waitForCompletion(build);
         }
+
+        // Reported finalized without waiting for the polling
+        assertTrue(new ServerScope.Build(build).isOutOfScope(mockServer));
+    }
+
+    @Test
+    public void runScopedServerDisposedOnFinalized() throws Exception {
+        JCloudsCloud cloud = j.dummyCloud();
+        Openstack os = cloud.getOpenstack();
+        Server server = mock(Server.class);
+        when(server.getId()).thenReturn("424242");
+        when(os.getServerById("424242")).thenReturn(server);
+
+        FreeStyleProject asdf = j.createFreeStyleProject("asdf");
+        JCloudsCleanupThreadTest.BuildBlocker bb = new JCloudsCleanupThreadTest.BuildBlocker();
+        asdf.getBuildersList().add(bb);
+        FreeStyleBuild build = asdf.scheduleBuild2(0).waitForStart();
+        bb.awaitStarted();
+
+        RunScopeRegistry.get().register(new ServerScope.Build(build), cloud.name, "424242");
+        verify(os, never()).destroyServer(server);
+
+        bb.signalDone();
+        j.waitForCompletion(build);
+
+        // No cleanup triggered
+        verify(os, timeout(10000)).destroyServer(server);
     }
 
     @Test
@@ -1,11 +1,16 @@
 package jenkins.plugins.openstack.compute;
 
+import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import hudson.model.Node;
 import hudson.slaves.NodeProperty;
+import java.util.Arrays;
 import java.util.List;
 import jenkins.plugins.openstack.PluginTestRule;
 import jenkins.plugins.openstack.compute.slaveopts.BootSource;
@@ -58,6 +63,11 @@ public class SlaveOptionsTest {
                 .launcherFactory(new LauncherFactory.SSH(""))
                 .nodeProperties(PluginTestRule.mkListOfNodeProperties(3))
                 .retentionTime(3)
+                .portPoolSize(5)
+                .parkLimit(2)
+                .recycle(true)
+                .bakeInterval(12)
+                .launchRetryDelay(1000)
                 .build();
         SlaveOptions overridden = PluginTestRule.dummySlaveOptions().override(override);
 
@@ -78,6 +88,11 @@ public class SlaveOptionsTest {
         assertThat(overridden.getLauncherFactory(), instanceOf(LauncherFactory.SSH.class));
         assertEquals(PluginTestRule.mkListOfNodeProperties(3), overridden.getNodeProperties());
         assertEquals(3, (int) overridden.getRetentionTime());
+        assertEquals(5, (int) overridden.getPortPoolSize());
+        assertEquals(2, (int) overridden.getParkLimit());
+        assertTrue(overridden.getRecycle());
+        assertEquals(12, (int) overridden.getBakeInterval());
+        assertEquals(1000, (int) overridden.getLaunchRetryDelay());
     }
 
     @Test
@@ -111,7 +126,34 @@ public class SlaveOptionsTest {
     public void emptyStrings() {
         SlaveOptions nulls = SlaveOptions.empty();
         SlaveOptions emptyStrings = new SlaveOptions(
-                null, "", "", "", null, null, "", "", "", null, "", null, "", "", null, null, null, null);
+                null,
+                "",
+                "",
+                "",
+                null,
+                null,
+                "",
+                "",
+                "",
+                null,
+                "",
+                null,
+                "",
+                "",
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
         SlaveOptions emptyBuilt = SlaveOptions.builder()
                 .hardwareId("")
                 .networkId("")
@@ -189,4 +231,30 @@ public class SlaveOptionsTest {
         // Then
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void compileResourceSpecs() {
+        SlaveOptions opts = SlaveOptions.builder()
+                .networkId("foo|bar, baz")
+                .securityGroups("default,ssh")
+                .build();
+
+        ResourceSpec networks = opts.getNetworkSpec();
+        assertTrue(networks.hasAlternatives());
+        assertEquals(Arrays.asList(Arrays.asList("foo", "bar"), singletonList("baz")), networks.getAlternatives());
+        assertEquals(Arrays.asList("foo", "bar", "baz"), networks.getDeclared());
+        assertEquals(Arrays.asList("foo", "baz"), networks.getPreferred());
+        assertEquals(Arrays.asList("default", "ssh"), opts.getSecurityGroupSpec().getDeclared());
+
+        assertNull(SlaveOptions.empty().getNetworkSpec());
+        assertNull(SlaveOptions.empty().getSecurityGroupSpec());
+
+        // Reported once used
+        ResourceSpec blank = SlaveOptions.builder().networkId("foo,,bar").build().getNetworkSpec();
+        try {
+            blank.getDeclared();
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
 }
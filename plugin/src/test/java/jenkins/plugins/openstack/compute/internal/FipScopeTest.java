@@ -23,12 +23,14 @@
 package jenkins.plugins.openstack.compute.internal;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import org.apache.commons.lang.StringUtils;
 import org.junit.Test;
 import org.openstack4j.model.compute.Server;
 
@@ -54,6 +56,19 @@ public class FipScopeTest {
                 lessThanOrEqualTo(FipScope.MAX_DESCRIPTION_LENGTH));
     }
 
+    @Test
+    public void getDescriptionWithNote() {
+        Server server = server("d8eca2df-7795-4069-b2ef-1e2412491345");
+        String description = FipScope.getDescription(URL, FINGERPRINT, server, "For 'agent-1', from Image x.");
+        assertThat(description.length(), lessThanOrEqualTo(FipScope.MAX_DESCRIPTION_LENGTH));
+        assertThat(description, containsString("For 'agent-1', from Image x."));
+        assertEquals("d8eca2df-7795-4069-b2ef-1e2412491345", FipScope.getServerId(URL, FINGERPRINT, description));
+
+        // Dropped when too long
+        description = FipScope.getDescription(URL, FINGERPRINT, server, StringUtils.repeat("x", 200));
+        assertEquals(ABBREVIATED_DESCRIPTION, description);
+    }
+
     private Server server(String id) {
         Server mock = mock(Server.class);
         when(mock.getId()).thenReturn(id);
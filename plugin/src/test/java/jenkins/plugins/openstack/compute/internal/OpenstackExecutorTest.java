@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class OpenstackExecutorTest {
+
+    @Test
+    public void countQueuedAndActiveTasks() throws Exception {
+        OpenstackExecutor executor = new OpenstackExecutor(Executors.newFixedThreadPool(1));
+        try {
+            assertFalse(executor.isVirtual());
+
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<?> running = executor.submit(() -> {
+                started.countDown();
+                release.await();
+                return null;
+            });
+            Future<?> queued = executor.submit(() -> {});
+            started.await(10, TimeUnit.SECONDS);
+
+            assertEquals(1, executor.getActiveCount());
+            assertEquals(1, executor.getQueueLength());
+            assertEquals(0, executor.getCompletedCount());
+
+            release.countDown();
+            running.get(10, TimeUnit.SECONDS);
+            queued.get(10, TimeUnit.SECONDS);
+
+            // Counters are updated after the future completes
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+            assertEquals(0, executor.getActiveCount());
+            assertEquals(0, executor.getQueueLength());
+            assertEquals(2, executor.getCompletedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void runTasksOnSharedInstance() throws Exception {
+        OpenstackExecutor executor = OpenstackExecutor.get();
+        assertSame(executor, OpenstackExecutor.get());
+        assertEquals(Runtime.version().feature() >= 21, executor.isVirtual());
+        assertEquals("done", executor.submit(() -> "done").get(10, TimeUnit.SECONDS));
+    }
+}
@@ -16,6 +16,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
@@ -399,11 +401,69 @@ public class OpenstackTest {
         assertThat(foo, equalTo(Collections.singletonMap("foo", net)));
         verify(netService, times(1)).list();
 
-        verify(openstack, times(2))._listNetworks();
+        verify(openstack, times(2)).getNetworkIndex();
 
         // Query again for new instance of Openstack
         new Openstack(osClient).getNetworks(Collections.singletonList("foo"));
         verify(netService, times(2)).list();
+
+        // Reuse the index of a connection created again, as the factory does when the cached instance expires
+        String fingerprint = "connection:" + UUID.randomUUID();
+        new Openstack(osClient, fingerprint).getNetworks(Collections.singletonList("foo"));
+        verify(netService, times(3)).list();
+        new Openstack(osClient, fingerprint).getNetworks(Collections.singletonList("foo"));
+        verify(netService, times(3)).list();
+    }
+
+    @Test
+    public void resolveNetworksByNameAndId() {
+        NeutronNetwork foo = mock(NeutronNetwork.class);
+        when(foo.getId()).thenReturn("uuid-foo");
+        when(foo.getName()).thenReturn("foo");
+        NeutronNetwork bar = mock(NeutronNetwork.class);
+        when(bar.getId()).thenReturn("uuid-bar");
+        when(bar.getName()).thenReturn("bar");
+        NeutronNetwork barToo = mock(NeutronNetwork.class);
+        when(barToo.getId()).thenReturn("uuid-bar-too");
+        when(barToo.getName()).thenReturn("bar");
+
+        NetworkService netService = osClient.networking().network();
+        doReturn(Arrays.asList(foo, bar, barToo)).when(netService).list();
+
+        Map<String, Network> expected = new HashMap<>();
+        expected.put("uuid-foo", foo);
+        expected.put("uuid-bar", bar);
+        expected.put("uuid-bar-too", barToo);
+        assertThat(openstack.getNetworks(Arrays.asList("foo", "bar", "uuid-bar-too", "uuid-foo")), equalTo(expected));
+
+        try {
+            openstack.getNetworks(Arrays.asList("foo", "baz"));
+            fail();
+        } catch (NoSuchElementException ex) {
+            assertThat(ex.getMessage(), containsString("[baz]"));
+        }
+        verify(netService, times(1)).list();
+    }
+
+    @Test
+    public void resolveFirstNetworkListed() {
+        NeutronNetwork byId = mock(NeutronNetwork.class);
+        when(byId.getId()).thenReturn("net");
+        when(byId.getName()).thenReturn("other");
+        NeutronNetwork byName = mock(NeutronNetwork.class);
+        when(byName.getId()).thenReturn("uuid-net");
+        when(byName.getName()).thenReturn("net");
+
+        NetworkService netService = osClient.networking().network();
+        doReturn(Arrays.asList(byId, byName)).when(netService).list();
+        assertThat(
+                new Openstack(osClient).getNetworks(Collections.singletonList("net")),
+                equalTo(Collections.singletonMap("net", byId)));
+
+        doReturn(Arrays.asList(byName, byId)).when(netService).list();
+        assertThat(
+                new Openstack(osClient).getNetworks(Collections.singletonList("net")),
+                equalTo(Collections.singletonMap("uuid-net", byName)));
     }
 
     @Test
@@ -464,6 +524,46 @@ public class OpenstackTest {
         verify(os, times(1)).destroyServer(server);
     }
 
+    @Test
+    public void findLeakedVolumesAndPorts() {
+        doReturn("https://jenkins.example.com/").when(openstack).instanceUrl();
+        doReturn("fingerprint").when(openstack).instanceFingerprint();
+        Server server = mock(Server.class);
+        when(server.getId()).thenReturn("server-id");
+        String ours = FipScope.getDescription("https://jenkins.example.com/", "fingerprint", server);
+        String theirs = FipScope.getDescription("https://jenkins.example.com/", "other", server);
+
+        Volume leaked = volume("leaked", Volume.Status.AVAILABLE, ours);
+        Volume attached = volume("attached", Volume.Status.IN_USE, ours);
+        Volume foreign = volume("foreign", Volume.Status.AVAILABLE, theirs);
+        Volume unrelated = volume("unrelated", Volume.Status.AVAILABLE, "Some volume");
+        doReturn(Arrays.asList(leaked, attached, foreign, unrelated))
+                .when(osClient.blockStorage().volumes())
+                .list();
+        assertThat(openstack.getLeakedVolumeIds(), equalTo(Collections.singletonList("leaked")));
+
+        Port leakedPort = mock(Port.class);
+        when(leakedPort.getId()).thenReturn("leaked");
+        when(leakedPort.getName()).thenReturn(Openstack.SERVER_PORT_PREFIX + "fingerprint:server-id");
+        Port foreignPort = mock(Port.class);
+        when(foreignPort.getId()).thenReturn("foreign");
+        when(foreignPort.getName()).thenReturn(Openstack.SERVER_PORT_PREFIX + "other:server-id");
+        Port unnamedPort = mock(Port.class);
+        when(unnamedPort.getId()).thenReturn("unnamed");
+        doReturn(Arrays.asList(leakedPort, foreignPort, unnamedPort))
+                .when(osClient.networking().port())
+                .list();
+        assertThat(openstack.getLeakedPortIds(), equalTo(Collections.singletonList("leaked")));
+    }
+
+    private static Volume volume(String id, Volume.Status status, String description) {
+        Volume volume = mock(Volume.class);
+        when(volume.getId()).thenReturn(id);
+        when(volume.getStatus()).thenReturn(status);
+        when(volume.getDescription()).thenReturn(description);
+        return volume;
+    }
+
     @Test
     public void deleteFloatingIpsWhenDeletingMachine() {
         Server server = mock(Server.class);
@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) Red Hat, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jenkins.plugins.openstack.compute.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class PortProberTest {
+
+    @Test
+    public void completeOnceThePortOpens() throws Exception {
+        PortProber prober = PortProber.get("completeOnceThePortOpens");
+        InetAddress localhost = InetAddress.getLoopbackAddress();
+
+        InetSocketAddress closed;
+        try (ServerSocket socket = new ServerSocket(0, 50, localhost)) {
+            closed = new InetSocketAddress(localhost, socket.getLocalPort());
+        }
+
+        try (ServerSocket socket = new ServerSocket(0, 50, localhost)) {
+            PortProber.Probe open = prober.probe("open", new InetSocketAddress(localhost, socket.getLocalPort()));
+            PortProber.Probe pending = prober.probe("pending", closed);
+            assertSame(open, prober.probe("open", closed));
+
+            open.getFuture().get(10, TimeUnit.SECONDS);
+            Thread.sleep(500);
+            assertFalse(pending.getFuture().isDone());
+
+            try (ServerSocket reopened = new ServerSocket(closed.getPort(), 50, localhost)) {
+                pending.getFuture().get(10, TimeUnit.SECONDS);
+            }
+
+            PortProber.Probe cancelled = prober.probe("cancelled", closed);
+            prober.cancel("cancelled");
+            assertTrue(cancelled.getFuture().isCancelled());
+            assertNull(prober.getProbe("cancelled"));
+        }
+    }
+}